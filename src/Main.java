@@ -1,8 +1,28 @@
+import dao.SeatHoldReaper;
+import dao.ShowtimeArchiver;
+import dao.SoftDeletePurger;
+import database.SchemaMigrator;
 import view.LoginView;
 import javafx.application.Application;
 
+import java.sql.SQLException;
+
 public class Main {
     public static void main(String[] args) {
+        // Create or upgrade the schema before anything touches the database
+        try {
+            SchemaMigrator.migrate();
+        } catch (SQLException e) {
+            System.err.println("Database migration failed: " + e.getMessage());
+            return;
+        }
+
+        // Free seats of abandoned, unpaid bookings in the background
+        SeatHoldReaper.start();
+        // Move past showtimes to the archive tables without blocking any view
+        ShowtimeArchiver.start();
+        // Remove soft-deleted movies and showtimes during off-peak hours
+        SoftDeletePurger.start();
         Application.launch(LoginView.class, args);
     }
 }
@@ -0,0 +1,126 @@
+package config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Application settings, so pools, timeouts, caches and hall layouts can be tuned per site
+ * without recompiling.
+ *
+ * A setting named e.g. db.pool.maxSize is looked up, first match wins, in:
+ * <ol>
+ *     <li>the system property moviebooking.db.pool.maxSize</li>
+ *     <li>the environment variable MOVIEBOOKING_DB_POOL_MAXSIZE</li>
+ *     <li>the properties file given by moviebooking.config / MOVIEBOOKING_CONFIG,
+ *     or ./moviebooking.properties if it exists</li>
+ *     <li>the default passed by the caller</li>
+ * </ol>
+ * Values are read when a class first needs them, so changes take effect on the next start.
+ * A value that can't be parsed fails fast with the name of the setting rather than being ignored.
+ */
+public class AppConfig {
+    private static final String PREFIX = "moviebooking.";
+    private static final String DEFAULT_FILE = "moviebooking.properties";
+
+    private static final Properties file = loadFile();
+
+    public static String getString(String key, String defaultValue) {
+        String value = lookup(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = lookup(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw invalid(key, value, "an integer");
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = lookup(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw invalid(key, value, "an integer");
+        }
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        String value = lookup(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw invalid(key, value, "a number");
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = lookup(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+            return Boolean.parseBoolean(value);
+        }
+        throw invalid(key, value, "true or false");
+    }
+
+    private static String lookup(String key) {
+        String value = System.getProperty(PREFIX + key);
+        if (value == null) {
+            value = System.getenv(toEnvName(key));
+        }
+        if (value == null) {
+            value = file.getProperty(key);
+        }
+        return value != null ? value.trim() : null;
+    }
+
+    private static String toEnvName(String key) {
+        return (PREFIX + key).toUpperCase().replace('.', '_');
+    }
+
+    private static IllegalStateException invalid(String key, String value, String expected) {
+        return new IllegalStateException("Setting " + key + " must be " + expected + ", got: " + value);
+    }
+
+    /**
+     * Reads the properties file, if any. An explicitly named file that can't be read is an
+     * error; a missing default file just means every setting uses its default.
+     */
+    private static Properties loadFile() {
+        Properties properties = new Properties();
+        String configured = System.getProperty(PREFIX + "config");
+        if (configured == null) {
+            configured = System.getenv(toEnvName("config"));
+        }
+
+        Path path = Paths.get(configured != null ? configured : DEFAULT_FILE);
+        if (configured == null && !Files.exists(path)) {
+            return properties;
+        }
+
+        try (InputStream in = Files.newInputStream(path)) {
+            properties.load(in);
+            System.out.println("Loaded configuration from " + path.toAbsolutePath());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read configuration file " + path, e);
+        }
+        return properties;
+    }
+}
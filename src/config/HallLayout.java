@@ -0,0 +1,119 @@
+package config;
+
+/**
+ * Seat layout of a hall. Every hall uses hall.default.rows / hall.default.cols unless the
+ * configuration overrides it with hall.&lt;name&gt;.rows / hall.&lt;name&gt;.cols, where the name
+ * is lower case with spaces replaced by '_' (hall "Hall 2" becomes hall.hall_2.rows).
+ *
+ * Seat numbers are a row label followed by a 1-based column number ("A1", "B12"). Rows are
+ * labelled A to Z, then AA, AB and so on, so every label stays upper case and distinct under the
+ * case-insensitive collation of the seats table.
+ */
+public final class HallLayout {
+    /** Rows A..ZZ and four-digit columns keep seat numbers within the seatNumber VARCHAR(10) column */
+    public static final int MAX_ROWS = 26 * 27;
+    public static final int MAX_COLS = 9999;
+
+    private static final int DEFAULT_ROWS = AppConfig.getInt("hall.default.rows", 10);
+    private static final int DEFAULT_COLS = AppConfig.getInt("hall.default.cols", 15);
+
+    private final int rows;
+    private final int cols;
+
+    private HallLayout(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalStateException("Invalid hall layout: " + rows + "x" + cols);
+        }
+        if (rows > MAX_ROWS || cols > MAX_COLS) {
+            throw new IllegalStateException("Hall layout " + rows + "x" + cols + " is too large: at most "
+                    + MAX_ROWS + " rows (A to ZZ) and " + MAX_COLS + " seats per row are supported");
+        }
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    public static HallLayout forHall(String hall) {
+        if (hall == null || hall.trim().isEmpty()) {
+            return new HallLayout(DEFAULT_ROWS, DEFAULT_COLS);
+        }
+        String key = "hall." + hall.trim().toLowerCase().replace(' ', '_');
+        return new HallLayout(AppConfig.getInt(key + ".rows", DEFAULT_ROWS), AppConfig.getInt(key + ".cols", DEFAULT_COLS));
+    }
+
+    /**
+     * @return the label of the 0-based row: A..Z, then AA, AB, ..., ZZ
+     */
+    public static String rowLabel(int row) {
+        if (row < 0 || row >= MAX_ROWS) {
+            throw new IllegalArgumentException("Row out of range: " + row);
+        }
+        return row < 26
+                ? String.valueOf((char) ('A' + row))
+                : String.valueOf((char) ('A' + row / 26 - 1)) + (char) ('A' + row % 26);
+    }
+
+    /**
+     * Parses the row label at the start of a seat number
+     *
+     * @return the 0-based row, or -1 if the seat number doesn't start with one or two
+     *         upper case letters followed by a digit
+     */
+    public static int parseRow(String seatNumber) {
+        int letters = rowLabelLength(seatNumber);
+        if (letters == 1) {
+            return seatNumber.charAt(0) - 'A';
+        }
+        if (letters == 2) {
+            return (seatNumber.charAt(0) - 'A' + 1) * 26 + seatNumber.charAt(1) - 'A';
+        }
+        return -1;
+    }
+
+    /**
+     * Parses the column number following the row label of a seat number
+     *
+     * @return the 0-based column, or -1 if the seat number is malformed
+     */
+    public static int parseCol(String seatNumber) {
+        int start = rowLabelLength(seatNumber);
+        if (start <= 0 || seatNumber.length() - start > 4) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < seatNumber.length(); i++) {
+            char c = seatNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value - 1;
+    }
+
+    /**
+     * @return number of leading row letters (1 or 2) if a digit follows them, otherwise -1
+     */
+    private static int rowLabelLength(String seatNumber) {
+        if (seatNumber == null) {
+            return -1;
+        }
+        int letters = 0;
+        while (letters < seatNumber.length() && letters < 2
+                && seatNumber.charAt(letters) >= 'A' && seatNumber.charAt(letters) <= 'Z') {
+            letters++;
+        }
+        if (letters == 0 || letters >= seatNumber.length()) {
+            return -1;
+        }
+        char next = seatNumber.charAt(letters);
+        return next >= '0' && next <= '9' ? letters : -1;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+}
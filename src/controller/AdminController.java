@@ -1,7 +1,11 @@
 package controller;
 
+import dao.HallSchedule;
+import dao.SeatInventory;
 import model.Movie;
+import model.ScheduledShowtime;
 import model.Showtime;
+import model.ShowtimeListing;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -29,14 +33,36 @@ public class AdminController {
         return movieController.addMovie(movie);
     }
 
+    /**
+     * Hides the movie and its showtimes immediately; the purger removes the rows off-peak
+     */
     public boolean deleteMovie(int movieId) {
-        return dao.CascadeDeleteHelper.safeDeleteMovie(movieId);
+        if (movieController.softDeleteMovie(movieId)) {
+            HallSchedule.getInstance().invalidate();
+            return true;
+        }
+        return false;
     }
 
     public List<Movie> getAllMovies() {
         return movieController.getAllMovies();
     }
 
+    /**
+     * Next page of movies for the admin list
+     * @param last last movie of the previous page, or null for the first page
+     */
+    public List<Movie> getMoviesAfter(Movie last, int limit) {
+        return movieController.getMoviesAfter(last, limit);
+    }
+
+    /**
+     * Movies with ID and title only, for the showtime form and list
+     */
+    public List<Movie> getMovieTitles() {
+        return movieController.getMovieTitles();
+    }
+
     public Movie getMovieById(int movieId) {
         return movieController.getMovieByID(movieId);
     }
@@ -55,14 +81,30 @@ public class AdminController {
         }
     }
 
+    /**
+     * Hides the showtime immediately; the purger removes its seats and bookings off-peak
+     */
     public boolean deleteShowtime(int showtimeId) {
-        return dao.CascadeDeleteHelper.safeDeleteShowtime(showtimeId);
+        if (showtimeController.softDeleteShowtime(showtimeId)) {
+            HallSchedule.getInstance().remove(showtimeId);
+            SeatInventory.getInstance().invalidate(showtimeId);
+            return true;
+        }
+        return false;
     }
 
     public List<Showtime> getAllShowtimes() {
         return showtimeController.getAllShowtimes();
     }
 
+    /**
+     * Next page of showtimes for the admin list, with movie titles and seat sales
+     * @param last last listing of the previous page, or null for the first page
+     */
+    public List<ShowtimeListing> getShowtimeListingsAfter(ShowtimeListing last, int limit) {
+        return showtimeController.getShowtimeListingsAfter(last, limit);
+    }
+
     // ==================== BOOKING MANAGEMENT ====================
 
     public String validateShowtime(int movieId, String dateStr, String timeStr, String hall) {
@@ -95,23 +137,18 @@ public class AdminController {
         LocalDateTime startDateTime = LocalDateTime.of(date, LocalTime.parse(timeStr));
         LocalDateTime endDateTime = startDateTime.plusMinutes(durationMinutes);
 
-        // Check for overlapping showtimes in the same hall
-        for (Showtime existing : getAllShowtimes()) {
-            if (existing.getHall().equals(hall)) {
-                LocalDateTime existingStart = existing.getDateTime();
-                LocalDateTime existingEnd = existingStart.plusMinutes(getMovieById(existing.getMovieId()).getDuration());
-
-                // Check for overlap (with buffer time of 30 minutes between showtimes)
-                if (!(endDateTime.isBefore(existingStart.minusMinutes(30)) ||
-                        startDateTime.isAfter(existingEnd.plusMinutes(30)))) {
-                    Movie existingMovie = getMovieById(existing.getMovieId());
-                    return String.format("Time conflict with %s (%s - %s) in the same hall. " +
-                                    "Need at least 30 minutes between showtimes.",
-                            existingMovie.getTitle(),
-                            existingStart.format(DateTimeFormatter.ofPattern("h:mm a")),
-                            existingEnd.format(DateTimeFormatter.ofPattern("h:mm a")));
-                }
-            }
+        // Check for overlapping showtimes in the same hall (with buffer time between showtimes)
+        List<ScheduledShowtime> conflicts = HallSchedule.getInstance().findConflicts(hall, startDateTime, endDateTime);
+        if (!conflicts.isEmpty()) {
+            ScheduledShowtime existing = conflicts.get(0);
+            String others = conflicts.size() > 1 ? " and " + (conflicts.size() - 1) + " other showtime(s)" : "";
+            return String.format("Time conflict with %s (%s - %s)%s in the same hall. " +
+                            "Need at least %d minutes between showtimes.",
+                    existing.getMovieTitle(),
+                    existing.getStart().format(DateTimeFormatter.ofPattern("h:mm a")),
+                    existing.getEnd().format(DateTimeFormatter.ofPattern("h:mm a")),
+                    others,
+                    HallSchedule.CHANGEOVER_MINUTES);
         }
 
         return null;
@@ -3,17 +3,12 @@ package controller;
 import dao.UserDAO;
 import model.User;
 import model.UserRole;
-import java.sql.SQLException;
 
 public class AuthController {
     private final UserDAO userDAO;
 
     public AuthController() {
-        try {
-            this.userDAO = new UserDAO();
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to initialize database connection", e);
-        }
+        this.userDAO = new UserDAO();
     }
 
     public User login(String email, String password) {
@@ -51,10 +46,4 @@ public class AuthController {
             return false;
         }
     }
-
-    public void close() {
-        if (userDAO != null) {
-            userDAO.close();
-        }
-    }
 }
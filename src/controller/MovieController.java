@@ -2,6 +2,7 @@ package controller;
 
 import dao.MovieDAO;
 import model.Movie;
+import model.NowShowingMovie;
 
 import java.util.List;
 
@@ -25,8 +26,28 @@ public class MovieController {
         return movieDAO.getAllMovies();
     }
 
+    public List<Movie> getMoviesAfter(Movie last, int limit) {
+        return movieDAO.getMoviesAfter(last, limit);
+    }
+
+    public List<Movie> getMovieTitles() {
+        return movieDAO.getMovieTitles();
+    }
+
+    public List<NowShowingMovie> getNowShowingMovies() {
+        return movieDAO.getNowShowingMovies(null);
+    }
+
+    public List<NowShowingMovie> searchNowShowingMovies(String titleFilter) {
+        return movieDAO.getNowShowingMovies(titleFilter);
+    }
+
     // ================ New Methods for Admin ================
     public Movie getMovieByID(int id) {
         return movieDAO.getMovieByID(id);
     }
+
+    public boolean softDeleteMovie(int movieId) {
+        return movieDAO.softDeleteMovie(movieId);
+    }
 }
@@ -1,12 +1,16 @@
 package controller;
 
+import config.AppConfig;
 import dao.PaymentDAO;
 import model.Payment;
 import model.PaymentStatus;
 
 import java.util.List;
+import java.util.Locale;
 
 public class PaymentController {
+    public static final double TICKET_PRICE = AppConfig.getDouble("ticket.price", 10.00);
+
     private final PaymentDAO paymentDao;
 
     public PaymentController() {
@@ -31,6 +35,22 @@ public class PaymentController {
         return false;
     }
 
+    /**
+     * Flags the completed payments of a booking for refund after the booking could not be
+     * confirmed, so the customer isn't charged for seats they didn't get
+     * @return true if a payment was flagged
+     */
+    public boolean flagForRefund(int bookingId) {
+        return paymentDao.flagCompletedPaymentsForRefund(bookingId) > 0;
+    }
+
+    /**
+     * @return the ticket price with two decimals, e.g. "10.00"
+     */
+    public static String formatTicketPrice() {
+        return String.format(Locale.ROOT, "%.2f", TICKET_PRICE);
+    }
+
     // Private helper methods
 
     private boolean processPaymentThroughGateway(String paymentMethod) {
@@ -1,29 +1,55 @@
 package controller;
 
-import dao.SeatDAO;
+import dao.SeatInventory;
 import model.Seat;
+import model.SeatClaimResult;
 import java.util.List;
 
 public class SeatController {
-    private final SeatDAO seatDao;
+    private final SeatInventory seatInventory;
 
     public SeatController() {
-        this.seatDao = new SeatDAO();
+        this.seatInventory = SeatInventory.getInstance();
     }
 
     /**
-     * Gets all seats for a specific showtime
+     * Gets all seats for a specific showtime from the in-memory seat inventory
      * @param showtimeId The ID of the showtime
-     * @return List of Seat objects
+     * @return Unmodifiable list of Seat objects, shared with other callers
      */
     public List<Seat> getSeatsByShowtime(int showtimeId) {
-        return seatDao.getSeatsByShowtime(showtimeId);
+        var seatMap = seatInventory.getSeatMap(showtimeId);
+        return seatMap != null ? seatMap.toSeats() : List.of();
     }
 
     /**
-     * Closes the database connection
+     * Gets the number of seats still free for a showtime
+     * @param showtimeId The ID of the showtime
+     * @return Number of free seats
+     */
+    public int countFreeSeats(int showtimeId) {
+        return seatInventory.countFree(showtimeId);
+    }
+
+    /**
+     * Claims seats for a new unpaid booking, all or nothing
+     * @param showtimeId The ID of the showtime
+     * @param seatIds IDs of the seats to claim
+     * @param userId ID of the user booking the seats
+     * @return The claim outcome, including seats lost to other users
+     */
+    public SeatClaimResult claimSeats(int showtimeId, List<Integer> seatIds, int userId) {
+        return seatInventory.claim(showtimeId, seatIds, userId);
+    }
+
+    /**
+     * Cancels an unpaid booking and frees its seats
+     * @param showtimeId The ID of the showtime
+     * @param seatIds IDs of the seats held by the booking
+     * @param bookingId The ID of the booking
+     * @return true if the booking was released
      */
-    public void close() {
-        seatDao.closeConnection();
+    public boolean releaseBooking(int showtimeId, List<Integer> seatIds, int bookingId) {
+        return seatInventory.release(showtimeId, seatIds, bookingId);
     }
 }
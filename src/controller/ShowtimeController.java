@@ -1,9 +1,13 @@
 package controller;
 
+import config.HallLayout;
+import dao.HallSchedule;
 import dao.MovieDAO;
 import dao.ShowtimeDAO;
-import dao.SeatDAO;
+import model.Movie;
+import model.ScheduledShowtime;
 import model.Showtime;
+import model.ShowtimeListing;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -11,34 +15,31 @@ import java.util.List;
 public class ShowtimeController {
     private final ShowtimeDAO showtimeDao;
     private final MovieDAO movieDao;
-    private final SeatDAO seatDao;
 
     public ShowtimeController() {
         this.showtimeDao = new ShowtimeDAO();
         this.movieDao = new MovieDAO();
-        this.seatDao = new SeatDAO();
     }
 
     public int addShowtimeWithSeats(int movieId, LocalDateTime dateTime, String hall, int rows, int cols) {
         // Validate inputs
-        if (movieId <= 0 || dateTime == null || hall == null || hall.trim().isEmpty() || rows <= 0 || cols <= 0) {
+        if (movieId <= 0 || dateTime == null || hall == null || hall.trim().isEmpty() || rows <= 0 || cols <= 0
+                || rows > HallLayout.MAX_ROWS || cols > HallLayout.MAX_COLS) {
             return -1;
         }
 
         // Check if movie exists
-        if (movieDao.getMovieByID(movieId) == null) {
+        Movie movie = movieDao.getMovieByID(movieId);
+        if (movie == null) {
             return -1;
         }
 
+        // Showtime and seats are created in one transaction
         Showtime showtime = new Showtime(0, movieId, dateTime, hall);
-        if (showtimeDao.addShowtime(showtime)) {
-            if (seatDao.initializeSeatsForShowtime(showtime.getId(), rows, cols)) {
-                return showtime.getId();
-            } else {
-                // Rollback showtime creation if seat initialization fails
-                showtimeDao.deleteShowtime(showtime.getId());
-                return -1;
-            }
+        if (showtimeDao.addShowtimeWithSeats(showtime, rows, cols)) {
+            HallSchedule.getInstance().add(new ScheduledShowtime(showtime.getId(), movieId, movie.getTitle(),
+                    hall, dateTime, dateTime.plusMinutes(movie.getDuration())));
+            return showtime.getId();
         }
         return -1;
     }
@@ -47,6 +48,13 @@ public class ShowtimeController {
         return showtimeDao.getShowtimesByMovieAndDate(movieId, date);
     }
 
+    /**
+     * Get the showtimes of a movie on the days in [fromDate, toDate)
+     */
+    public List<Showtime> getShowtimesForMovie(int movieId, LocalDate fromDate, LocalDate toDate) {
+        return showtimeDao.getShowtimes(movieId, fromDate.atStartOfDay(), toDate.atStartOfDay());
+    }
+
 
     public Showtime getShowtimeById(int showtimeId) {
         return showtimeDao.getShowtimeByID(showtimeId);
@@ -56,6 +64,10 @@ public class ShowtimeController {
         return showtimeDao.getAllShowtimes();
     }
 
+    public List<ShowtimeListing> getShowtimeListingsAfter(ShowtimeListing last, int limit) {
+        return showtimeDao.getShowtimeListingsAfter(last, limit);
+    }
+
     public List<Showtime> getShowtimesByMovie(int movieId) {
         if (movieId <= 0) {
             return List.of();
@@ -63,15 +75,12 @@ public class ShowtimeController {
         return showtimeDao.getShowtimesByMovieID(movieId);
     }
 
-    public void close() {
-        try {
-            seatDao.closeConnection();
-        } catch (Exception e) {
-            System.err.println("Error closing connections: " + e.getMessage());
-        }
+    public boolean softDeleteShowtime(int showtimeId) {
+        return showtimeDao.softDeleteShowtime(showtimeId);
     }
 
     public boolean addShowtime(int movieId, LocalDateTime dateTime, String hall) {
-        return addShowtimeWithSeats(movieId, dateTime, hall, 10, 15) > 0;
+        HallLayout layout = HallLayout.forHall(hall);
+        return addShowtimeWithSeats(movieId, dateTime, hall, layout.getRows(), layout.getCols()) > 0;
     }
 }
@@ -2,28 +2,24 @@ package dao;
 
 import database.DatabaseConnection;
 import model.Booking;
+import model.SeatClaimResult;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class BookingDAO {
-    private Connection conn;
-
-    public BookingDAO() {
-        try {
-            conn = DatabaseConnection.getConnection();
-        } catch (SQLException e) {
-            System.err.println("Database connection failed! " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
+    private final SeatHoldDAO seatHoldDAO = new SeatHoldDAO();
 
     // Add a new booking (updated to match Booking constructor)
     public boolean addBooking(Booking booking) {
         String query = "INSERT INTO bookings (user_id, movie_id, showtime_id, isPaid) VALUES (?, ?, ?, ?)";
 
-        try (PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setInt(1, booking.getUserID());
             stmt.setInt(2, booking.getMovieID());
             stmt.setInt(3, booking.getShowtimeID());
@@ -48,21 +44,12 @@ public class BookingDAO {
 
     // Get a booking by ID (updated to match Booking constructor)
     public Booking getBookingByID(int id) {
-        String query = "SELECT * FROM bookings WHERE id = ?";
+        String query = "SELECT " + RowMappers.BOOKING_COLUMNS + " FROM bookings WHERE id = ?";
 
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return new Booking(
-                        rs.getInt("id"),
-                        rs.getInt("user_id"),
-                        rs.getInt("movie_id"),
-                        rs.getInt("showtime_id"),
-                        rs.getBoolean("isPaid")
-                );
-            }
+            return RowMappers.first(stmt, RowMappers.BOOKING);
         } catch (SQLException e) {
             System.err.println("Failed to fetch booking: " + e.getMessage());
             e.printStackTrace();
@@ -72,23 +59,14 @@ public class BookingDAO {
 
     // Get booking by seat ID (new method)
     public Booking getBookingBySeatId(int seatId) {
-        String query = "SELECT b.* FROM bookings b " +
+        String query = "SELECT " + RowMappers.qualify("b", RowMappers.BOOKING_COLUMNS) + " FROM bookings b " +
                 "JOIN booking_seats bs ON b.id = bs.booking_id " +
                 "WHERE bs.seat_id = ?";
 
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, seatId);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return new Booking(
-                        rs.getInt("id"),
-                        rs.getInt("user_id"),
-                        rs.getInt("movie_id"),
-                        rs.getInt("showtime_id"),
-                        rs.getBoolean("isPaid")
-                );
-            }
+            return RowMappers.first(stmt, RowMappers.BOOKING);
         } catch (SQLException e) {
             System.err.println("Failed to fetch booking by seat: " + e.getMessage());
         }
@@ -99,7 +77,8 @@ public class BookingDAO {
     public boolean linkSeatToBooking(int bookingId, int seatId) {
         String query = "INSERT INTO booking_seats (booking_id, seat_id) VALUES (?, ?)";
 
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, bookingId);
             stmt.setInt(2, seatId);
             return stmt.executeUpdate() > 0;
@@ -109,27 +88,245 @@ public class BookingDAO {
         return false;
     }
 
-    // Create new booking for seat (new method)
-    public boolean createNewBookingForSeat(int seatId, int userId, int movieId, int showtimeId) {
+    /**
+     * Claims all of the given seats for a new unpaid booking, or none of them.
+     *
+     * The requested seat rows are locked, then flipped with a conditional UPDATE on
+     * isBooked = false, the booking row inserted and the seats linked - all in one
+     * transaction. If any seat is already taken the transaction changes nothing and the
+     * result reports which seats were lost.
+     *
+     * Claimed seats are held for {@link SeatHoldDAO#DEFAULT_HOLD_TTL_SECONDS}; unless the
+     * booking is paid or the hold extended, the reaper releases them afterwards.
+     */
+    public SeatClaimResult claimSeats(int showtimeId, List<Integer> seatIds, int userId) {
+        if (seatIds == null || seatIds.isEmpty()) {
+            return SeatClaimResult.failed();
+        }
+        // Lock rows in a stable order so overlapping claims can't deadlock each other
+        List<Integer> requested = seatIds.stream().distinct().sorted().toList();
+
         try {
-            // Create new booking (isPaid = false by default)
-            Booking newBooking = new Booking(0, userId, movieId, showtimeId, false);
-            if (!addBooking(newBooking)) {
-                return false;
+            return DatabaseConnection.inTransaction(conn -> {
+                List<Integer> lost = lockSeatsAndFindTaken(conn, showtimeId, requested);
+                if (!lost.isEmpty()) {
+                    return SeatClaimResult.lost(lost);
+                }
+
+                if (markSeatsBooked(conn, showtimeId, requested) != requested.size()) {
+                    // Can't happen while we hold the row locks, but never book half a claim
+                    throw new SQLException("Seat state changed during claim for showtime " + showtimeId);
+                }
+
+                int bookingId = insertBookingForShowtime(conn, userId, showtimeId);
+                linkSeatsToBooking(conn, bookingId, requested);
+                seatHoldDAO.createHolds(conn, bookingId, requested, SeatHoldDAO.DEFAULT_HOLD_TTL_SECONDS);
+                return SeatClaimResult.claimed(bookingId, requested);
+            });
+        } catch (SQLException e) {
+            System.err.println("Failed to claim seats: " + e.getMessage());
+            e.printStackTrace();
+            return SeatClaimResult.failed();
+        }
+    }
+
+    /**
+     * Cancels an unpaid booking and frees its seats in one transaction
+     */
+    public boolean releaseBooking(int bookingId) {
+        try {
+            return DatabaseConnection.inTransaction(conn ->
+                    releaseUnpaidBookings(conn, List.of(bookingId)) > 0);
+        } catch (SQLException e) {
+            System.err.println("Failed to release booking: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Marks a held booking as paid and drops its seat holds, so the reaper leaves it alone.
+     * @return false if the hold already expired and the seats were released
+     */
+    public boolean confirmPaidBooking(int bookingId) {
+        try {
+            return DatabaseConnection.inTransaction(conn -> {
+                if (seatHoldDAO.deleteHolds(conn, bookingId) == 0) {
+                    // No hold left: fine if the reaper already confirmed it for a completed payment
+                    return isPaid(conn, bookingId);
+                }
+                try (PreparedStatement stmt = conn.prepareStatement("UPDATE bookings SET isPaid = true WHERE id = ?")) {
+                    stmt.setInt(1, bookingId);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
+        } catch (SQLException e) {
+            System.err.println("Failed to confirm booking: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Frees the seats of the given unpaid bookings and deletes them, using a fixed number
+     * of set-based statements on the caller's connection. Paid bookings are left untouched.
+     *
+     * A booking whose payment completed but was never confirmed (the confirmation failed or
+     * the hold ran out while charging) is confirmed here instead of released: the customer
+     * has paid for those seats. A booking with a payment flagged for refund loses its seats
+     * but is kept, since its payment record can't be deleted.
+     * @return number of bookings whose seats were released
+     */
+    static int releaseUnpaidBookings(Connection conn, List<Integer> bookingIds) throws SQLException {
+        String ids = placeholders(bookingIds.size());
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE bookings SET isPaid = true WHERE isPaid = false AND id IN (" + ids + ") " +
+                        "AND id IN (SELECT booking_id FROM Payment WHERE PaymentStatus = 'COMPLETED')")) {
+            bindIds(stmt, 1, bookingIds);
+            stmt.executeUpdate();
+        }
+        // Paid bookings have no business holding seats; without this they would be picked again
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM seat_holds WHERE booking_id IN (" + ids + ")")) {
+            bindIds(stmt, 1, bookingIds);
+            stmt.executeUpdate();
+        }
+
+        List<Integer> unpaidIds = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT id FROM bookings WHERE isPaid = false AND id IN (" + ids + ")")) {
+            bindIds(stmt, 1, bookingIds);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    unpaidIds.add(rs.getInt(1));
+                }
             }
+        }
+        if (unpaidIds.isEmpty()) {
+            return 0;
+        }
+
+        String unpaid = placeholders(unpaidIds.size());
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "UPDATE seats SET isBooked = false WHERE id IN " +
+                        "(SELECT seat_id FROM booking_seats WHERE booking_id IN (" + unpaid + "))")) {
+            bindIds(stmt, 1, unpaidIds);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM booking_seats WHERE booking_id IN (" + unpaid + ")")) {
+            bindIds(stmt, 1, unpaidIds);
+            stmt.executeUpdate();
+        }
+        // Failed or pending payment attempts would otherwise block the booking delete
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM Payment WHERE PaymentStatus IN ('PENDING', 'FAILED') AND booking_id IN (" + unpaid + ")")) {
+            bindIds(stmt, 1, unpaidIds);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM bookings WHERE id IN (" + unpaid + ") " +
+                        "AND id NOT IN (SELECT booking_id FROM Payment WHERE booking_id IS NOT NULL)")) {
+            bindIds(stmt, 1, unpaidIds);
+            stmt.executeUpdate();
+        }
+        return unpaidIds.size();
+    }
+
+    private static boolean isPaid(Connection conn, int bookingId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT isPaid FROM bookings WHERE id = ?")) {
+            stmt.setInt(1, bookingId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private List<Integer> lockSeatsAndFindTaken(Connection conn, int showtimeId, List<Integer> seatIds) throws SQLException {
+        String query = "SELECT id, isBooked FROM seats WHERE showtime_id = ? AND id IN (" +
+                placeholders(seatIds.size()) + ") ORDER BY id FOR UPDATE";
+
+        Set<Integer> free = new HashSet<>();
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, showtimeId);
+            bindIds(stmt, 2, seatIds);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (!rs.getBoolean(2)) {
+                        free.add(rs.getInt(1));
+                    }
+                }
+            }
+        }
+
+        // Anything not found free is lost: booked by someone else or not part of this showtime
+        List<Integer> lost = new ArrayList<>();
+        for (Integer seatId : seatIds) {
+            if (!free.contains(seatId)) {
+                lost.add(seatId);
+            }
+        }
+        return lost;
+    }
+
+    private int markSeatsBooked(Connection conn, int showtimeId, List<Integer> seatIds) throws SQLException {
+        String query = "UPDATE seats SET isBooked = true WHERE showtime_id = ? AND isBooked = false AND id IN (" +
+                placeholders(seatIds.size()) + ")";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, showtimeId);
+            bindIds(stmt, 2, seatIds);
+            return stmt.executeUpdate();
+        }
+    }
+
+    private int insertBookingForShowtime(Connection conn, int userId, int showtimeId) throws SQLException {
+        // movie_id comes from the showtime row so callers can't book a mismatched pair
+        String query = "INSERT INTO bookings (user_id, movie_id, showtime_id, isPaid) " +
+                "SELECT ?, movie_id, id, false FROM Showtime WHERE id = ? AND deleted_at IS NULL";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, userId);
+            stmt.setInt(2, showtimeId);
+            if (stmt.executeUpdate() == 0) {
+                throw new SQLException("Showtime " + showtimeId + " not found");
+            }
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    return generatedKeys.getInt(1);
+                }
+            }
+        }
+        throw new SQLException("No booking ID generated");
+    }
 
-            // Link seat to booking (but don't mark as booked yet)
-            return linkSeatToBooking(newBooking.getID(), seatId);
-        } catch (Exception e) {
-            System.err.println("Failed to create booking for seat: " + e.getMessage());
-            return false;
+    private void linkSeatsToBooking(Connection conn, int bookingId, List<Integer> seatIds) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO booking_seats (booking_id, seat_id) VALUES (?, ?)")) {
+            for (Integer seatId : seatIds) {
+                stmt.setInt(1, bookingId);
+                stmt.setInt(2, seatId);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    static void bindIds(PreparedStatement stmt, int firstIndex, List<Integer> ids) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            stmt.setInt(firstIndex + i, ids.get(i));
         }
     }
 
     public boolean updateBooking(Booking booking) {
         String query = "UPDATE bookings SET user_id = ?, movie_id = ?, showtime_id = ?, isPaid = ? WHERE id = ?";
 
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, booking.getUserID());
             stmt.setInt(2, booking.getMovieID());
             stmt.setInt(3, booking.getShowtimeID());
@@ -147,7 +344,8 @@ public class BookingDAO {
     public boolean deleteBooking(int id) {
         String query = "DELETE FROM bookings WHERE id = ?";
 
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, id);
             return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
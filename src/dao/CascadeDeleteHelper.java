@@ -5,223 +5,199 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
 
-public class CascadeDeleteHelper {
-
-    public static boolean safeDeleteMovie(int movieId) {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            conn.setAutoCommit(false);
-            try {
-                // First delete related booking_seats records
-                deleteBookingSeatsForMovie(conn, movieId);
-
-                // Delete payment records
-                deletePaymentsForMovie(conn, movieId);
-
-                // Delete bookings for this movie
-                deleteBookingsForMovie(conn, movieId);
-
-                // Get showtimes for this movie
-                List<Integer> showtimeIds = getShowtimeIdsByMovie(conn, movieId);
-
-                // Delete seats for these showtimes
-                for (Integer showtimeId : showtimeIds) {
-                    deleteSeatsForShowtime(conn, showtimeId);
-                }
-
-                // Delete showtimes
-                deleteShowtimesForMovie(conn, movieId);
-
-                // Finally delete the movie
-                deleteMovie(conn, movieId);
-
-                conn.commit();
-                return true;
-            } catch (SQLException e) {
-                conn.rollback();
-                System.err.println("Error in cascade delete for movie: " + e.getMessage());
-                return false;
-            } finally {
-                conn.setAutoCommit(true);
-            }
-        } catch (SQLException e) {
-            System.err.println("Database connection error: " + e.getMessage());
-            return false;
-        }
+/**
+ * Deletes a movie or showtime together with everything that references it.
+ *
+ * Each cascade is a fixed list of set-based DELETE statements, children first. By default the
+ * whole cascade runs in one transaction. With a chunk size, every table except the last is first
+ * emptied a chunk of that many keys at a time, walking the key column upwards from where the
+ * previous chunk ended, each chunk in its own short transaction, so the locks the booking path
+ * needs are never held for long. A final transaction then runs the full cascade once more to
+ * catch rows added in the meantime and deletes the movie or showtime itself.
+ *
+ * Admin deletes are soft; {@link SoftDeletePurger} removes the rows through here at night.
+ */
+final class CascadeDeleteHelper {
+
+    /**
+     * Receives progress of a cascade delete, from whichever thread runs it
+     */
+    interface ProgressListener {
+        /**
+         * @param stepIndex index of the step being worked on, from 0 to stepCount - 1
+         * @param step short description of the rows being deleted, e.g. "seats"
+         * @param rowsDeleted rows deleted by this step so far
+         */
+        void onProgress(int stepIndex, int stepCount, String step, long rowsDeleted);
     }
-    
-    public static boolean safeDeleteShowtime(int showtimeId) {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            conn.setAutoCommit(false);
-            try {
-                // Get booking IDs for this showtime
-                List<Integer> bookingIds = getBookingIdsByShowtime(conn, showtimeId);
-
-                // Delete booking_seats for these bookings
-                for (Integer bookingId : bookingIds) {
-                    deleteBookingSeatsForBooking(conn, bookingId);
-                }
-
-                // Delete payments for these bookings
-                for (Integer bookingId : bookingIds) {
-                    deletePaymentsForBooking(conn, bookingId);
-                }
-
-                // Delete bookings for this showtime
-                deleteBookingsForShowtime(conn, showtimeId);
-
-                // Delete seats for this showtime
-                deleteSeatsForShowtime(conn, showtimeId);
-
-                // Finally delete the showtime
-                deleteShowtime(conn, showtimeId);
 
-                conn.commit();
-                return true;
-            } catch (SQLException e) {
-                conn.rollback();
-                System.err.println("Error in cascade delete for showtime: " + e.getMessage());
-                return false;
-            } finally {
-                conn.setAutoCommit(true);
-            }
-        } catch (SQLException e) {
-            System.err.println("Database connection error: " + e.getMessage());
-            return false;
+    /**
+     * One DELETE of the cascade. Every '?' in the condition is bound to the ID being deleted.
+     */
+    private static final class Step {
+        final String label;
+        final String table;
+        final String keyColumn;
+        final String condition;
+
+        Step(String label, String table, String keyColumn, String condition) {
+            this.label = label;
+            this.table = table;
+            this.keyColumn = keyColumn;
+            this.condition = condition;
         }
     }
 
-    // Helper methods
-
-    private static void deleteBookingSeatsForMovie(Connection conn, int movieId) throws SQLException {
-        try (PreparedStatement stmt = conn.prepareStatement(
-                "DELETE FROM booking_seats WHERE booking_id IN " +
-                        "(SELECT id FROM bookings WHERE movie_id = ?)")) {
-            stmt.setInt(1, movieId);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Failed to delete booking_seats for movie: " + e.getMessage());
-            throw e;
-        }
+    private static final String BOOKINGS_OF_MOVIE = "SELECT id FROM bookings WHERE movie_id = ?";
+    private static final String BOOKINGS_OF_SHOWTIME = "SELECT id FROM bookings WHERE showtime_id = ?";
+
+    private static final List<Step> MOVIE_CASCADE = List.of(
+            new Step("seat holds", "seat_holds", "seat_id", "booking_id IN (" + BOOKINGS_OF_MOVIE + ")"),
+            new Step("booked seats", "booking_seats", "booking_id", "booking_id IN (" + BOOKINGS_OF_MOVIE + ")"),
+            new Step("payments", "Payment", "id", "booking_id IN (" + BOOKINGS_OF_MOVIE + ")"),
+            new Step("bookings", "bookings", "id", "movie_id = ?"),
+            new Step("seats", "seats", "id", "showtime_id IN (SELECT id FROM Showtime WHERE movie_id = ?)"),
+            new Step("showtimes", "Showtime", "id", "movie_id = ?"),
+            new Step("movie", "Movie", "id", "id = ?")
+    );
+
+    private static final List<Step> SHOWTIME_CASCADE = List.of(
+            new Step("seat holds", "seat_holds", "seat_id", "booking_id IN (" + BOOKINGS_OF_SHOWTIME + ")"),
+            new Step("booked seats", "booking_seats", "booking_id", "booking_id IN (" + BOOKINGS_OF_SHOWTIME + ")"),
+            new Step("payments", "Payment", "id", "booking_id IN (" + BOOKINGS_OF_SHOWTIME + ")"),
+            new Step("bookings", "bookings", "id", "showtime_id = ?"),
+            new Step("seats", "seats", "id", "showtime_id = ?"),
+            new Step("showtime", "Showtime", "id", "id = ?")
+    );
+
+    /**
+     * @param chunkSize keys deleted per transaction, or 0 to delete everything in one transaction
+     */
+    static boolean safeDeleteMovie(int movieId, int chunkSize, ProgressListener listener) {
+        return cascade("movie", MOVIE_CASCADE, movieId, chunkSize, listener);
     }
 
-    private static void deletePaymentsForMovie(Connection conn, int movieId) throws SQLException {
-        try (PreparedStatement stmt = conn.prepareStatement(
-                "DELETE FROM payment WHERE booking_id IN " +
-                        "(SELECT id FROM bookings WHERE movie_id = ?)")) {
-            stmt.setInt(1, movieId);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Failed to delete payments for movie: " + e.getMessage());
-            throw e;
-        }
+    /**
+     * @param chunkSize keys deleted per transaction, or 0 to delete everything in one transaction
+     */
+    static boolean safeDeleteShowtime(int showtimeId, int chunkSize, ProgressListener listener) {
+        return cascade("showtime", SHOWTIME_CASCADE, showtimeId, chunkSize, listener);
     }
 
-    private static void deleteBookingsForMovie(Connection conn, int movieId) throws SQLException {
-        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM bookings WHERE movie_id = ?")) {
-            stmt.setInt(1, movieId);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Failed to delete bookings for movie: " + e.getMessage());
-            throw e;
-        }
-    }
-
-    private static List<Integer> getShowtimeIdsByMovie(Connection conn, int movieId) throws SQLException {
-        List<Integer> ids = new ArrayList<>();
-        try (PreparedStatement stmt = conn.prepareStatement("SELECT id FROM showtime WHERE movie_id = ?")) {
-            stmt.setInt(1, movieId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    ids.add(rs.getInt("id"));
+    private static boolean cascade(String what, List<Step> steps, int id, int chunkSize, ProgressListener listener) {
+        int last = steps.size() - 1;
+        try {
+            if (chunkSize > 0) {
+                for (int i = 0; i < last; i++) {
+                    deleteInChunks(steps.get(i), i, steps.size(), id, chunkSize, listener);
                 }
             }
-        }
-        return ids;
-    }
 
-    private static void deleteSeatsForShowtime(Connection conn, int showtimeId) throws SQLException {
-        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM seats WHERE showtime_id = ?")) {
-            stmt.setInt(1, showtimeId);
-            stmt.executeUpdate();
+            long deleted = DatabaseConnection.inTransaction(conn -> {
+                for (int i = 0; i < last; i++) {
+                    long rows = delete(conn, steps.get(i), id, null, null);
+                    if (chunkSize <= 0) {
+                        listener.onProgress(i, steps.size(), steps.get(i).label, rows);
+                    }
+                }
+                return delete(conn, steps.get(last), id, null, null);
+            });
+            listener.onProgress(last, steps.size(), steps.get(last).label, deleted);
+            return true;
         } catch (SQLException e) {
-            System.err.println("Failed to delete seats for showtime: " + e.getMessage());
-            throw e;
+            System.err.println("Error in cascade delete for " + what + ": " + e.getMessage());
+            return false;
         }
     }
 
-    private static void deleteShowtimesForMovie(Connection conn, int movieId) throws SQLException {
-        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM showtime WHERE movie_id = ?")) {
-            stmt.setInt(1, movieId);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Failed to delete showtimes for movie: " + e.getMessage());
-            throw e;
+    /**
+     * Deletes the rows of one step in chunks of chunkSize keys, one transaction per chunk. Each
+     * chunk starts after the last key of the previous one, so every transaction deletes rows
+     * even when the keys are sparse.
+     */
+    private static void deleteInChunks(Step step, int stepIndex, int stepCount, int id, int chunkSize,
+                                       ProgressListener listener) throws SQLException {
+        long total = 0;
+        long afterKey = Long.MIN_VALUE;
+        while (true) {
+            long from = afterKey;
+            long[] chunk = DatabaseConnection.inTransaction(conn -> {
+                Long lastKey = findChunkEnd(conn, step, id, from, chunkSize);
+                return lastKey == null ? null : new long[]{lastKey, delete(conn, step, id, from, lastKey)};
+            });
+            if (chunk == null) {
+                break;
+            }
+            afterKey = chunk[0];
+            total += chunk[1];
+            listener.onProgress(stepIndex, stepCount, step.label, total);
         }
-    }
-
-    private static void deleteMovie(Connection conn, int movieId) throws SQLException {
-        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM movie WHERE id = ?")) {
-            stmt.setInt(1, movieId);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Failed to delete movie: " + e.getMessage());
-            throw e;
+        if (total == 0) {
+            listener.onProgress(stepIndex, stepCount, step.label, 0);
         }
     }
 
-    private static List<Integer> getBookingIdsByShowtime(Connection conn, int showtimeId) throws SQLException {
-        List<Integer> ids = new ArrayList<>();
-        try (PreparedStatement stmt = conn.prepareStatement("SELECT id FROM bookings WHERE showtime_id = ?")) {
-            stmt.setInt(1, showtimeId);
+    /**
+     * @return highest of the next chunkSize keys after afterKey, or null if no rows are left
+     */
+    private static Long findChunkEnd(Connection conn, Step step, int id, long afterKey, int chunkSize) throws SQLException {
+        String query = "SELECT MAX(" + step.keyColumn + ") FROM (SELECT " + step.keyColumn + " FROM " + step.table +
+                " WHERE " + step.condition + " AND " + step.keyColumn + " > ?" +
+                " ORDER BY " + step.keyColumn + " LIMIT ?) chunk";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            int next = bindId(stmt, id, step.condition);
+            stmt.setLong(next, afterKey);
+            stmt.setInt(next + 1, chunkSize);
             try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    ids.add(rs.getInt("id"));
+                if (rs.next()) {
+                    long lastKey = rs.getLong(1);
+                    if (!rs.wasNull()) {
+                        return lastKey;
+                    }
                 }
             }
         }
-        return ids;
-    }
-
-    private static void deleteBookingSeatsForBooking(Connection conn, int bookingId) throws SQLException {
-        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM booking_seats WHERE booking_id = ?")) {
-            stmt.setInt(1, bookingId);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Failed to delete booking_seats for booking: " + e.getMessage());
-            throw e;
-        }
+        return null;
     }
 
-    private static void deletePaymentsForBooking(Connection conn, int bookingId) throws SQLException {
-        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM payment WHERE booking_id = ?")) {
-            stmt.setInt(1, bookingId);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Failed to delete payments for booking: " + e.getMessage());
-            throw e;
+    /**
+     * Runs one step, limited to keys in (afterKey, throughKey] when a range is given. Keys need
+     * not be unique: all rows sharing the last key of a chunk go with that chunk.
+     * @return number of rows deleted
+     */
+    private static long delete(Connection conn, Step step, int id, Long afterKey, Long throughKey) throws SQLException {
+        String sql = "DELETE FROM " + step.table + " WHERE " + step.condition;
+        if (afterKey != null) {
+            sql += " AND " + step.keyColumn + " > ? AND " + step.keyColumn + " <= ?";
         }
-    }
 
-    private static void deleteBookingsForShowtime(Connection conn, int showtimeId) throws SQLException {
-        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM bookings WHERE showtime_id = ?")) {
-            stmt.setInt(1, showtimeId);
-            stmt.executeUpdate();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int next = bindId(stmt, id, step.condition);
+            if (afterKey != null) {
+                stmt.setLong(next, afterKey);
+                stmt.setLong(next + 1, throughKey);
+            }
+            return stmt.executeUpdate();
         } catch (SQLException e) {
-            System.err.println("Failed to delete bookings for showtime: " + e.getMessage());
+            System.err.println("Failed to delete " + step.label + ": " + e.getMessage());
             throw e;
         }
     }
 
-    private static void deleteShowtime(Connection conn, int showtimeId) throws SQLException {
-        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM showtime WHERE id = ?")) {
-            stmt.setInt(1, showtimeId);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            System.err.println("Failed to delete showtime: " + e.getMessage());
-            throw e;
+    /**
+     * Binds the ID to every parameter of the condition
+     * @return index of the next free parameter
+     */
+    private static int bindId(PreparedStatement stmt, int id, String condition) throws SQLException {
+        int index = 1;
+        for (int i = 0; i < condition.length(); i++) {
+            if (condition.charAt(i) == '?') {
+                stmt.setInt(index++, id);
+            }
         }
+        return index;
     }
 }
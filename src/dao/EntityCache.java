@@ -0,0 +1,311 @@
+package dao;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Bounded read-through cache of entities by ID, shared by all instances of a DAO.
+ *
+ * Eviction follows W-TinyLFU: new entries go into a small LRU window; an entry leaving the
+ * window only enters the main area if it has been requested more often than the entry it would
+ * displace there, as estimated by a count-min sketch of recent requests. A burst of one-off
+ * lookups therefore can't flush the few hot movies and showtimes. The main area is a segmented
+ * LRU: entries hit again while on probation move to the protected segment.
+ *
+ * Entries expire after a fixed time so changes made by other application instances show up
+ * eventually; changes made through the DAOs invalidate the affected entries right away.
+ * Cached entities are shared between callers and must not be modified.
+ */
+final class EntityCache<V> {
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+
+    private final String name;
+    private final int maxSize;
+    private final int windowMax;
+    private final int protectedMax;
+    private final long ttlNanos;
+
+    private final Map<Integer, Node<V>> entries = new HashMap<>();
+    private final NodeList<V> window = new NodeList<>();
+    private final NodeList<V> probation = new NodeList<>();
+    private final NodeList<V> protectedSegment = new NodeList<>();
+    private final FrequencySketch sketch;
+
+    // Bumped by every invalidation; a load that overlaps one is returned but not cached
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    EntityCache(String name, int maxSize, long ttlSeconds) {
+        if (maxSize < 2) {
+            throw new IllegalStateException("Cache " + name + " needs room for at least 2 entries, got " + maxSize);
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.windowMax = Math.max(1, maxSize / 100);
+        this.protectedMax = (maxSize - windowMax) * 80 / 100;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.sketch = new FrequencySketch(maxSize);
+    }
+
+    /**
+     * Returns the cached entity, or loads it with the loader and caches it. A null result
+     * (not found, or a failed query) is not cached.
+     */
+    V get(int id, IntFunction<V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            sketch.increment(id);
+            Node<V> node = entries.get(id);
+            if (node != null && node.expiresAt - System.nanoTime() > 0) {
+                hits++;
+                onHit(node);
+                return node.value;
+            }
+            if (node != null) {
+                remove(node);
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        // Load without holding the lock, so a slow query doesn't block lookups of other IDs
+        V value = loader.apply(id);
+        if (value != null) {
+            synchronized (this) {
+                if (loadGeneration == generation && !entries.containsKey(id)) {
+                    add(id, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drops the entity after it was added, changed or deleted
+     */
+    synchronized void invalidate(int id) {
+        generation++;
+        Node<V> node = entries.get(id);
+        if (node != null) {
+            remove(node);
+        }
+    }
+
+    synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    synchronized EntityCacheStats getStats() {
+        return new EntityCacheStats(name, entries.size(), maxSize, hits, misses, evictions);
+    }
+
+    private void onHit(Node<V> node) {
+        switch (node.segment) {
+            case WINDOW:
+                window.moveToTail(node);
+                break;
+            case PROBATION:
+                // Requested again while on probation: worth protecting
+                probation.remove(node);
+                node.segment = PROTECTED;
+                protectedSegment.addToTail(node);
+                if (protectedSegment.size > protectedMax) {
+                    Node<V> demoted = protectedSegment.removeHead();
+                    demoted.segment = PROBATION;
+                    probation.addToTail(demoted);
+                }
+                break;
+            default:
+                protectedSegment.moveToTail(node);
+                break;
+        }
+    }
+
+    private void add(int id, V value) {
+        Node<V> node = new Node<>(id, value, System.nanoTime() + ttlNanos);
+        entries.put(id, node);
+        node.segment = WINDOW;
+        window.addToTail(node);
+        if (window.size > windowMax) {
+            admit(window.removeHead());
+        }
+    }
+
+    /**
+     * Moves an entry leaving the window into the main area if there is room, or if it is
+     * requested more often than the main area's eviction candidate
+     */
+    private void admit(Node<V> candidate) {
+        candidate.segment = PROBATION;
+        if (entries.size() <= maxSize) {
+            probation.addToTail(candidate);
+            return;
+        }
+        Node<V> victim = probation.size > 0 ? probation.head : protectedSegment.head;
+        if (sketch.frequency(candidate.id) > sketch.frequency(victim.id)) {
+            remove(victim);
+            probation.addToTail(candidate);
+        } else {
+            entries.remove(candidate.id);
+        }
+        evictions++;
+    }
+
+    private void remove(Node<V> node) {
+        entries.remove(node.id);
+        listOf(node).remove(node);
+    }
+
+    private NodeList<V> listOf(Node<V> node) {
+        switch (node.segment) {
+            case WINDOW:
+                return window;
+            case PROBATION:
+                return probation;
+            default:
+                return protectedSegment;
+        }
+    }
+
+    private static final class Node<V> {
+        private final int id;
+        private final V value;
+        private final long expiresAt;
+        private int segment;
+        private Node<V> prev;
+        private Node<V> next;
+
+        private Node(int id, V value, long expiresAt) {
+            this.id = id;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Doubly linked LRU list, least recently used first
+     */
+    private static final class NodeList<V> {
+        private Node<V> head;
+        private Node<V> tail;
+        private int size;
+
+        private void addToTail(Node<V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        private void remove(Node<V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        private Node<V> removeHead() {
+            Node<V> node = head;
+            remove(node);
+            return node;
+        }
+
+        private void moveToTail(Node<V> node) {
+            if (node != tail) {
+                remove(node);
+                addToTail(node);
+            }
+        }
+
+        private void clear() {
+            head = null;
+            tail = null;
+            size = 0;
+        }
+    }
+
+    /**
+     * Count-min sketch of how often each ID was requested recently. Four counters per ID,
+     * capped at 15, in four rows of a power-of-two width; the estimate is the smallest of
+     * them. All counters are halved every 10 x maxSize requests so old popularity fades.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+        private static final int MAX_COUNT = 15;
+
+        private final int[][] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int maxSize) {
+            int width = Integer.highestOneBit(Math.max(16, maxSize - 1) * 2);
+            this.counters = new int[SEEDS.length][width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * maxSize;
+        }
+
+        private void increment(int id) {
+            boolean added = false;
+            for (int row = 0; row < SEEDS.length; row++) {
+                int index = index(id, row);
+                if (counters[row][index] < MAX_COUNT) {
+                    counters[row][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        private int frequency(int id) {
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < SEEDS.length; row++) {
+                frequency = Math.min(frequency, counters[row][index(id, row)]);
+            }
+            return frequency;
+        }
+
+        private int index(int id, int row) {
+            long hash = (id + 1L) * SEEDS[row];
+            hash ^= hash >>> 32;
+            return (int) (hash ^ (hash >>> 16)) & mask;
+        }
+
+        private void reset() {
+            for (int[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>>= 1;
+                }
+            }
+            additions /= 2;
+        }
+    }
+}
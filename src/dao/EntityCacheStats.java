@@ -0,0 +1,60 @@
+package dao;
+
+/**
+ * Immutable snapshot of an entity cache's metrics
+ */
+public class EntityCacheStats {
+    private final String name;
+    private final int size;
+    private final int maxSize;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    public EntityCacheStats(String name, int size, int maxSize, long hits, long misses, long evictions) {
+        this.name = name;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return share of lookups served from the cache, from 0 to 1
+     */
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0 : hits / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EntityCacheStats[%s: size=%d, max=%d, hits=%d, misses=%d, hitRatio=%.2f, evictions=%d]",
+                name, size, maxSize, hits, misses, getHitRatio(), evictions);
+    }
+}
@@ -0,0 +1,109 @@
+package dao;
+
+import config.AppConfig;
+import model.ScheduledShowtime;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-hall index of upcoming showtimes for conflict checks when scheduling.
+ *
+ * Each hall has an {@link IntervalTree} of [start, end + changeover] intervals, loaded with a
+ * single query and kept up to date as showtimes are added and deleted. Showtimes scheduled by
+ * other processes are picked up by reloading once the index is older than {@link #MAX_INDEX_AGE_MS}.
+ */
+public class HallSchedule {
+    public static final int CHANGEOVER_MINUTES = AppConfig.getInt("schedule.changeoverMinutes", 30);
+    private static final long MAX_INDEX_AGE_MS = AppConfig.getLong("schedule.maxIndexAgeMs", 60_000);
+
+    private static final HallSchedule instance = new HallSchedule();
+
+    private final ShowtimeDAO showtimeDAO = new ShowtimeDAO();
+    private final Map<String, IntervalTree<ScheduledShowtime>> halls = new HashMap<>();
+    private final Map<Integer, ScheduledShowtime> showtimesById = new HashMap<>();
+    private long loadedAt = -1;
+
+    private HallSchedule() {
+    }
+
+    public static HallSchedule getInstance() {
+        return instance;
+    }
+
+    /**
+     * Finds showtimes in the hall that would leave less than {@link #CHANGEOVER_MINUTES}
+     * between them and a showtime running from start to end
+     * @return conflicting showtimes ordered by start, empty if there are none
+     */
+    public synchronized List<ScheduledShowtime> findConflicts(String hall, LocalDateTime start, LocalDateTime end) {
+        ensureLoaded();
+        IntervalTree<ScheduledShowtime> tree = halls.get(hall);
+        if (tree == null) {
+            return List.of();
+        }
+        return tree.findOverlapping(toMinutes(start), toMinutes(end) + CHANGEOVER_MINUTES);
+    }
+
+    public synchronized void add(ScheduledShowtime showtime) {
+        if (loadedAt < 0) {
+            return; // picked up by the initial load
+        }
+        remove(showtime.getShowtimeId());
+        index(showtime);
+    }
+
+    public synchronized void remove(int showtimeId) {
+        ScheduledShowtime showtime = showtimesById.remove(showtimeId);
+        if (showtime != null) {
+            IntervalTree<ScheduledShowtime> tree = halls.get(showtime.getHall());
+            tree.remove(toMinutes(showtime.getStart()), showtimeId);
+            if (tree.size() == 0) {
+                halls.remove(showtime.getHall());
+            }
+        }
+    }
+
+    /**
+     * Drops the index so it is reloaded on next use, e.g. after a movie and all its showtimes were deleted
+     */
+    public synchronized void invalidate() {
+        halls.clear();
+        showtimesById.clear();
+        loadedAt = -1;
+    }
+
+    private void ensureLoaded() {
+        if (loadedAt >= 0 && System.currentTimeMillis() - loadedAt <= MAX_INDEX_AGE_MS) {
+            return;
+        }
+        try {
+            // Yesterday's late showtimes can still run into today
+            List<ScheduledShowtime> showtimes = showtimeDAO.getScheduledShowtimesFrom(LocalDate.now().minusDays(1).atStartOfDay());
+            halls.clear();
+            showtimesById.clear();
+            for (ScheduledShowtime showtime : showtimes) {
+                index(showtime);
+            }
+            loadedAt = System.currentTimeMillis();
+        } catch (SQLException e) {
+            System.err.println("Failed to load hall schedule: " + e.getMessage());
+        }
+    }
+
+    private void index(ScheduledShowtime showtime) {
+        halls.computeIfAbsent(showtime.getHall(), hall -> new IntervalTree<>())
+                .insert(toMinutes(showtime.getStart()), toMinutes(showtime.getEnd()) + CHANGEOVER_MINUTES,
+                        showtime.getShowtimeId(), showtime);
+        showtimesById.put(showtime.getShowtimeId(), showtime);
+    }
+
+    private static long toMinutes(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+}
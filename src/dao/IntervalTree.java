@@ -0,0 +1,166 @@
+package dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Closed intervals [start, end] with an ID and a value, kept in a treap ordered by (start, id).
+ *
+ * Every node also stores the largest end in its subtree, which lets an overlap query skip
+ * whole subtrees that end before the queried range. Inserts and removals are O(log n)
+ * expected; a query is O(log n + k) for k results, returned in start order.
+ */
+final class IntervalTree<T> {
+    private static final class Node<T> {
+        final long start;
+        final long end;
+        final int id;
+        final T value;
+        final int priority;
+        long maxEnd;
+        Node<T> left;
+        Node<T> right;
+
+        Node(long start, long end, int id, T value, int priority) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.value = value;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+    }
+
+    private final Random random = new Random();
+    private Node<T> root;
+    private int size;
+    private boolean removed;
+
+    int size() {
+        return size;
+    }
+
+    void insert(long start, long end, int id, T value) {
+        root = insert(root, new Node<>(start, end, id, value, random.nextInt()));
+        size++;
+    }
+
+    /**
+     * @return true if an interval with this start and ID was present
+     */
+    boolean remove(long start, int id) {
+        removed = false;
+        root = remove(root, start, id);
+        if (removed) {
+            size--;
+        }
+        return removed;
+    }
+
+    /**
+     * @return values of all intervals intersecting [from, to], ordered by start
+     */
+    List<T> findOverlapping(long from, long to) {
+        List<T> result = new ArrayList<>();
+        collect(root, from, to, result);
+        return result;
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<T> remove(Node<T> node, long start, int id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            removed = true;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Rotate the node down below its higher-priority child, then keep removing
+            if (node.left.priority > node.right.priority) {
+                node = rotateRight(node);
+                node.right = remove(node.right, start, id);
+            } else {
+                node = rotateLeft(node);
+                node.left = remove(node.left, start, id);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private void collect(Node<T> node, long from, long to, List<T> result) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        collect(node.left, from, to, result);
+        if (node.start <= to && node.end >= from) {
+            result.add(node.value);
+        }
+        // Everything on the right starts at or after this node
+        if (node.start <= to) {
+            collect(node.right, from, to, result);
+        }
+    }
+
+    private static int compare(long start, int id, Node<?> node) {
+        int cmp = Long.compare(start, node.start);
+        return cmp != 0 ? cmp : Integer.compare(id, node.id);
+    }
+
+    private static <T> Node<T> rotateRight(Node<T> node) {
+        Node<T> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static <T> Node<T> rotateLeft(Node<T> node) {
+        Node<T> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node<?> node) {
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+}
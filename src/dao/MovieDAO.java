@@ -1,13 +1,26 @@
 package dao;
 
+import config.AppConfig;
 import database.DatabaseConnection;
 import model.Movie;
+import model.NowShowingMovie;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class MovieDAO {
+    private static final EntityCache<Movie> cache = new EntityCache<>("movie",
+            AppConfig.getInt("cache.movie.maxSize", 500), AppConfig.getLong("cache.ttlSeconds", 60));
+
+    /**
+     * Hit rate and size of the movie-by-ID cache
+     */
+    public static EntityCacheStats getCacheStats() {
+        return cache.getStats();
+    }
 
     // Add a new movie
     public boolean addMovie(Movie movie) {
@@ -29,6 +42,7 @@ public class MovieDAO {
                         movie.setID(generatedKeys.getInt(1));
                     }
                 }
+                cache.invalidate(movie.getID());
                 return true;
             }
         } catch (SQLException e) {
@@ -39,24 +53,18 @@ public class MovieDAO {
 
     // Get movie by ID
     public Movie getMovieByID(int id) {
-        String query = "SELECT * FROM Movie WHERE id = ?";
+        return cache.get(id, this::loadMovieByID);
+    }
+
+    private Movie loadMovieByID(int id) {
+        String query = "SELECT " + RowMappers.MOVIE_COLUMNS + " FROM Movie WHERE id = ? AND deleted_at IS NULL";
         Movie movie = null;
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                movie = new Movie(
-                        rs.getInt("id"),
-                        rs.getString("title"),
-                        rs.getString("genre"),
-                        rs.getInt("duration"),
-                        rs.getString("synopsis")
-                );
-            }
+            movie = RowMappers.first(stmt, RowMappers.MOVIE);
         } catch (SQLException e) {
             System.err.println("Error getting movie by ID: " + e.getMessage());
         }
@@ -65,24 +73,14 @@ public class MovieDAO {
 
     // Get movie by title
     public Movie getMovieByTitle(String title) {
-        String query = "SELECT * FROM Movie WHERE title = ?";
+        String query = "SELECT " + RowMappers.MOVIE_COLUMNS + " FROM Movie WHERE title = ? AND deleted_at IS NULL";
         Movie movie = null;
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setString(1, title);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                movie = new Movie(
-                        rs.getInt("id"),
-                        rs.getString("title"),
-                        rs.getString("genre"),
-                        rs.getInt("duration"),
-                        rs.getString("synopsis")
-                );
-            }
+            movie = RowMappers.first(stmt, RowMappers.MOVIE);
         } catch (SQLException e) {
             System.err.println("Error getting movie by title: " + e.getMessage());
         }
@@ -92,25 +90,162 @@ public class MovieDAO {
     // Get all movies
     public List<Movie> getAllMovies() {
         List<Movie> movies = new ArrayList<>();
-        String query = "SELECT * FROM Movie ORDER BY title";
+        String query = "SELECT " + RowMappers.MOVIE_COLUMNS + " FROM Movie WHERE deleted_at IS NULL ORDER BY title";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-
-            while (rs.next()) {
-                Movie movie = new Movie(
-                        rs.getInt("id"),
-                        rs.getString("title"),
-                        rs.getString("genre"),
-                        rs.getInt("duration"),
-                        rs.getString("synopsis")
-                );
-                movies.add(movie);
-            }
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            return RowMappers.list(stmt, RowMappers.MOVIE);
         } catch (SQLException e) {
             System.err.println("Error getting all movies: " + e.getMessage());
         }
         return movies;
     }
+
+    /**
+     * Streams every movie to the action in title order without loading the table into memory.
+     * The connection stays borrowed until the last row, so keep the action short.
+     * @return false if reading failed part way; rows already passed to the action stay processed
+     */
+    public boolean forEachMovie(Consumer<Movie> action) {
+        String query = "SELECT " + RowMappers.MOVIE_COLUMNS + " FROM Movie WHERE deleted_at IS NULL ORDER BY title";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            RowMappers.forEach(stmt, RowMappers.MOVIE, action);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error streaming movies: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Get the next page of movies in (title, ID) order. The cursor is the last movie seen, so
+     * pages stay stable while movies are added or deleted elsewhere in the list.
+     * @param last last movie of the previous page, or null for the first page
+     */
+    public List<Movie> getMoviesAfter(Movie last, int limit) {
+        String query = "SELECT " + RowMappers.MOVIE_COLUMNS + " FROM Movie WHERE deleted_at IS NULL " +
+                (last != null ? "AND (title > ? OR (title = ? AND id > ?)) " : "") +
+                "ORDER BY title, id LIMIT ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            int index = 1;
+            if (last != null) {
+                stmt.setString(index++, last.getTitle());
+                stmt.setString(index++, last.getTitle());
+                stmt.setInt(index++, last.getID());
+            }
+            stmt.setInt(index, limit);
+            return RowMappers.list(stmt, RowMappers.MOVIE);
+        } catch (SQLException e) {
+            System.err.println("Error getting page of movies: " + e.getMessage());
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Get the ID and title of every movie, for pickers and lookups that don't need the details
+     */
+    public List<Movie> getMovieTitles() {
+        String query = "SELECT " + RowMappers.MOVIE_TITLE_COLUMNS + " FROM Movie WHERE deleted_at IS NULL ORDER BY title";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            return RowMappers.list(stmt, RowMappers.MOVIE_TITLE);
+        } catch (SQLException e) {
+            System.err.println("Error getting movie titles: " + e.getMessage());
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Get movies with at least one showtime from the start of today on, each with its next
+     * showtime, in a single query. The per-movie MIN is served by idx_showtime_movie_datetime.
+     * @param titleFilter case-insensitive substring the title must contain, or null for all
+     */
+    public List<NowShowingMovie> getNowShowingMovies(String titleFilter) {
+        List<NowShowingMovie> movies = new ArrayList<>();
+        String query = "SELECT " + RowMappers.qualify("m", RowMappers.MOVIE_COLUMNS) + ", n.next_showtime " +
+                "FROM Movie m " +
+                "JOIN (SELECT movie_id, MIN(dateTime) AS next_showtime FROM Showtime " +
+                "      WHERE dateTime >= ? AND deleted_at IS NULL GROUP BY movie_id) n ON n.movie_id = m.id " +
+                "WHERE m.deleted_at IS NULL " +
+                (titleFilter != null ? "AND LOWER(m.title) LIKE ? ESCAPE '!' " : "") +
+                "ORDER BY m.title";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(LocalDate.now().atStartOfDay()));
+            if (titleFilter != null) {
+                stmt.setString(2, "%" + escapeLike(titleFilter.toLowerCase()) + "%");
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Movie movie = RowMappers.MOVIE.map(rs);
+                    movies.add(new NowShowingMovie(movie, rs.getTimestamp(6).toLocalDateTime()));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting now showing movies: " + e.getMessage());
+        }
+        return movies;
+    }
+
+    /**
+     * Escapes LIKE wildcards for a pattern used with ESCAPE '!'
+     */
+    static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    /**
+     * Hides a movie and all its showtimes from every read path in one transaction. Dependent
+     * rows stay until the purger removes them off-peak.
+     */
+    public boolean softDeleteMovie(int movieId) {
+        try {
+            boolean deleted = DatabaseConnection.inTransaction(conn -> {
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "UPDATE Showtime SET deleted_at = CURRENT_TIMESTAMP WHERE movie_id = ? AND deleted_at IS NULL")) {
+                    stmt.setInt(1, movieId);
+                    stmt.executeUpdate();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "UPDATE Movie SET deleted_at = CURRENT_TIMESTAMP WHERE id = ? AND deleted_at IS NULL")) {
+                    stmt.setInt(1, movieId);
+                    return stmt.executeUpdate() > 0;
+                }
+            });
+            cache.invalidate(movieId);
+            // The IDs of the movie's showtimes aren't known here; deleting a movie is rare
+            ShowtimeDAO.invalidateCache();
+            return deleted;
+        } catch (SQLException e) {
+            System.err.println("Error soft deleting movie: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * @return IDs of up to limit soft-deleted movies, oldest deletion first
+     */
+    List<Integer> getSoftDeletedMovieIds(int limit) throws SQLException {
+        String query = "SELECT id FROM Movie WHERE deleted_at IS NOT NULL ORDER BY deleted_at LIMIT ?";
+
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
 }
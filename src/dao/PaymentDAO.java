@@ -5,6 +5,8 @@ import model.Payment;
 import model.PaymentStatus;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 
 public class PaymentDAO {
 
@@ -38,6 +40,38 @@ public class PaymentDAO {
         return false;
     }
 
+    public List<Payment> getPaymentsByBooking(int bookingId) {
+        String query = "SELECT " + RowMappers.PAYMENT_COLUMNS + " FROM Payment WHERE booking_id = ? ORDER BY id";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, bookingId);
+            return RowMappers.list(stmt, RowMappers.PAYMENT);
+        } catch (SQLException e) {
+            System.err.println("Error getting payments of booking: " + e.getMessage());
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Flags the completed payments of a booking for refund, e.g. when the booking could not be
+     * confirmed after the charge went through
+     * @return number of payments flagged
+     */
+    public int flagCompletedPaymentsForRefund(int bookingId) {
+        String query = "UPDATE Payment SET PaymentStatus = 'REFUND_PENDING' WHERE booking_id = ? AND PaymentStatus = 'COMPLETED'";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, bookingId);
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Error flagging payments for refund: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
     public boolean updatePaymentStatus(int paymentId, PaymentStatus newStatus) {
         String query = "UPDATE Payment SET PaymentStatus = ? WHERE id = ?";
 
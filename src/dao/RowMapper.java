@@ -0,0 +1,14 @@
+package dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Turns the current row of a result set into an object, reading columns by position.
+ * Each mapper belongs to a column list in {@link RowMappers} and only works with queries
+ * that select exactly those columns, in that order, first.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+}
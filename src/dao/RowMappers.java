@@ -0,0 +1,159 @@
+package dao;
+
+import config.AppConfig;
+import model.Booking;
+import model.Movie;
+import model.Payment;
+import model.PaymentStatus;
+import model.Seat;
+import model.Showtime;
+import model.User;
+import model.UserRole;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Column lists and the matching index-based row mappers for the model classes.
+ *
+ * Queries select a column list from here instead of "*", so they only fetch what the mapper
+ * reads and the mapper can use column positions rather than case-insensitive name lookups.
+ * A list and its mapper must change together. Extra columns, e.g. from a join, go after the
+ * list and are read by the caller starting at the list's column count + 1.
+ */
+public final class RowMappers {
+    // Rows fetched per round trip by forEach; with useCursorFetch MySQL keeps the rest on the server
+    private static final int STREAM_FETCH_SIZE = AppConfig.getInt("db.streamFetchSize", 500);
+
+    public static final String MOVIE_COLUMNS = "id, title, genre, duration, synopsis";
+    public static final RowMapper<Movie> MOVIE = rs -> new Movie(
+            rs.getInt(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getInt(4),
+            rs.getString(5)
+    );
+
+    /** Movies for pickers and lookups by title: no genre, duration or synopsis */
+    public static final String MOVIE_TITLE_COLUMNS = "id, title";
+    public static final RowMapper<Movie> MOVIE_TITLE = rs -> new Movie(
+            rs.getInt(1),
+            rs.getString(2),
+            null,
+            0,
+            null
+    );
+
+    public static final String SHOWTIME_COLUMNS = "id, movie_id, dateTime, hall";
+    public static final RowMapper<Showtime> SHOWTIME = rs -> new Showtime(
+            rs.getInt(1),
+            rs.getInt(2),
+            rs.getTimestamp(3).toLocalDateTime(),
+            rs.getString(4)
+    );
+
+    public static final String SEAT_COLUMNS = "id, showtime_id, seatNumber, isBooked";
+    public static final RowMapper<Seat> SEAT = rs -> new Seat(
+            rs.getInt(1),
+            rs.getInt(2),
+            rs.getString(3),
+            rs.getBoolean(4)
+    );
+
+    public static final String BOOKING_COLUMNS = "id, user_id, movie_id, showtime_id, isPaid";
+    public static final RowMapper<Booking> BOOKING = rs -> new Booking(
+            rs.getInt(1),
+            rs.getInt(2),
+            rs.getInt(3),
+            rs.getInt(4),
+            rs.getBoolean(5)
+    );
+
+    public static final String USER_COLUMNS = "id, name, email, password, role";
+    public static final RowMapper<User> USER = rs -> new User(
+            rs.getInt(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            UserRole.valueOf(rs.getString(5))
+    );
+
+    /** Users for listings: everything but the password, which stays null */
+    public static final String USER_PUBLIC_COLUMNS = "id, name, email, role";
+    public static final RowMapper<User> USER_PUBLIC = rs -> new User(
+            rs.getInt(1),
+            rs.getString(2),
+            rs.getString(3),
+            null,
+            UserRole.valueOf(rs.getString(4))
+    );
+
+    public static final String PAYMENT_COLUMNS = "id, booking_id, amount, PaymentStatus, payment_date, payment_method";
+    public static final RowMapper<Payment> PAYMENT = rs -> {
+        Timestamp paymentDate = rs.getTimestamp(5);
+        return new Payment(
+                rs.getInt(1),
+                rs.getInt(2),
+                rs.getFloat(3),
+                PaymentStatus.valueOf(rs.getString(4)),
+                paymentDate != null ? paymentDate.toLocalDateTime() : null,
+                rs.getString(6)
+        );
+    };
+
+    private RowMappers() {
+    }
+
+    /**
+     * Prefixes every column of a list with a table alias, e.g. ("m", "id, title") -> "m.id, m.title"
+     */
+    public static String qualify(String alias, String columns) {
+        return alias + "." + columns.replace(", ", ", " + alias + ".");
+    }
+
+    /**
+     * Executes the query and maps every row
+     */
+    public static <T> List<T> list(PreparedStatement stmt, RowMapper<T> mapper) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                rows.add(mapper.map(rs));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Executes the query and hands every row to the action as it is read, fetching
+     * STREAM_FETCH_SIZE rows at a time, so memory use doesn't grow with the result
+     * @return number of rows processed
+     */
+    public static <T> int forEach(PreparedStatement stmt, RowMapper<T> mapper, Consumer<? super T> action)
+            throws SQLException {
+        stmt.setFetchSize(STREAM_FETCH_SIZE);
+        int count = 0;
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                action.accept(mapper.map(rs));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Executes the query and maps the first row
+     * @return the mapped row, or null if there is none
+     */
+    public static <T> T first(PreparedStatement stmt, RowMapper<T> mapper) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? mapper.map(rs) : null;
+        }
+    }
+}
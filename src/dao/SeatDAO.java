@@ -1,84 +1,64 @@
 package dao;
 
+import config.HallLayout;
 import database.DatabaseConnection;
 import model.Seat;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class SeatDAO {
-    private Connection conn;
+    private static final SingleFlight<Integer, List<Seat>> seatListLoads = new SingleFlight<>();
 
-    public SeatDAO() {
+    public boolean initializeSeatsForShowtime(int showtimeId, int rows, int cols) {
         try {
-            conn = DatabaseConnection.getConnection();
+            return DatabaseConnection.inTransaction(conn -> {
+                initializeSeatsForShowtime(conn, showtimeId, rows, cols);
+                return true;
+            });
         } catch (SQLException e) {
-            System.err.println("Database connection failed! " + e.getMessage());
+            System.err.println("Failed to initialize seats: " + e.getMessage());
             e.printStackTrace();
+            return false;
         }
     }
 
-    public boolean initializeSeatsForShowtime(int showtimeId, int rows, int cols) {
-        try {
-            conn.setAutoCommit(false);
-
-            // Clear any existing seats for this showtime
-            String deleteQuery = "DELETE FROM seats WHERE showtime_id = ?";
-            try (PreparedStatement deleteStmt = conn.prepareStatement(deleteQuery)) {
-                deleteStmt.setInt(1, showtimeId);
-                deleteStmt.executeUpdate();
-            }
+    /**
+     * Replaces the seats of a showtime using the caller's connection, so it can take
+     * part in a larger unit of work
+     */
+    public void initializeSeatsForShowtime(Connection conn, int showtimeId, int rows, int cols) throws SQLException {
+        // Clear any existing seats for this showtime
+        String deleteQuery = "DELETE FROM seats WHERE showtime_id = ?";
+        try (PreparedStatement deleteStmt = conn.prepareStatement(deleteQuery)) {
+            deleteStmt.setInt(1, showtimeId);
+            deleteStmt.executeUpdate();
+        }
 
-            // Insert new seats
-            String insertQuery = "INSERT INTO seats (showtime_id, seatNumber, isBooked) VALUES (?, ?, false)";
-            try (PreparedStatement insertStmt = conn.prepareStatement(insertQuery)) {
-                for (int row = 0; row < rows; row++) {
-                    char rowChar = (char) ('A' + row);
-                    for (int col = 1; col <= cols; col++) {
-                        String seatNumber = String.format("%c%d", rowChar, col);
-                        insertStmt.setInt(1, showtimeId);
-                        insertStmt.setString(2, seatNumber);
-                        insertStmt.addBatch();
-                    }
+        // Insert new seats
+        String insertQuery = "INSERT INTO seats (showtime_id, seatNumber, isBooked) VALUES (?, ?, false)";
+        try (PreparedStatement insertStmt = conn.prepareStatement(insertQuery)) {
+            for (int row = 0; row < rows; row++) {
+                String rowLabel = HallLayout.rowLabel(row);
+                for (int col = 1; col <= cols; col++) {
+                    String seatNumber = rowLabel + col;
+                    insertStmt.setInt(1, showtimeId);
+                    insertStmt.setString(2, seatNumber);
+                    insertStmt.addBatch();
                 }
-                insertStmt.executeBatch();
-            }
-
-            conn.commit();
-            return true;
-        } catch (SQLException e) {
-            try {
-                conn.rollback();
-            } catch (SQLException ex) {
-                System.err.println("Rollback failed: " + ex.getMessage());
-            }
-            System.err.println("Failed to initialize seats: " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        } finally {
-            try {
-                conn.setAutoCommit(true);
-            } catch (SQLException e) {
-                System.err.println("Failed to reset auto-commit: " + e.getMessage());
             }
+            insertStmt.executeBatch();
         }
     }
 
     public Seat getSeatByID(int id) {
-        String query = "SELECT * FROM seats WHERE id = ?";
+        String query = "SELECT " + RowMappers.SEAT_COLUMNS + " FROM seats WHERE id = ?";
 
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return new Seat(
-                        rs.getInt("id"),
-                        rs.getInt("showtime_id"),
-                        rs.getString("seatNumber"),
-                        rs.getBoolean("isBooked")
-                );
-            }
+            return RowMappers.first(stmt, RowMappers.SEAT);
         } catch (SQLException e) {
             System.err.println("Failed to fetch seat: " + e.getMessage());
             logSQLException(e);
@@ -86,33 +66,86 @@ public class SeatDAO {
         return null;
     }
 
+    /**
+     * Concurrent calls for the same showtime share one query and get the same unmodifiable list
+     */
     public List<Seat> getSeatsByShowtime(int showtimeId) {
-        List<Seat> seats = new ArrayList<>();
-        String query = "SELECT * FROM seats WHERE showtime_id = ? ORDER BY seatNumber ASC";
-
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setInt(1, showtimeId);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                seats.add(new Seat(
-                        rs.getInt("id"),
-                        rs.getInt("showtime_id"),
-                        rs.getString("seatNumber"),
-                        rs.getBoolean("isBooked")
-                ));
-            }
+        try {
+            return seatListLoads.run(showtimeId, () -> Collections.unmodifiableList(loadSeatsByShowtime(showtimeId)));
         } catch (SQLException e) {
             System.err.println("Failed to fetch seats: " + e.getMessage());
             logSQLException(e);
         }
-        return seats;
+        return List.of();
+    }
+
+    private List<Seat> loadSeatsByShowtime(int showtimeId) throws SQLException {
+        String query = "SELECT " + RowMappers.SEAT_COLUMNS + " FROM seats WHERE showtime_id = ? ORDER BY seatNumber ASC";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, showtimeId);
+            return RowMappers.list(stmt, RowMappers.SEAT);
+        }
+    }
+
+    /**
+     * Loads the layout and booked state of a showtime into a compact seat map
+     */
+    ShowtimeSeatMap loadSeatMap(int showtimeId) throws SQLException {
+        String query = "SELECT id, seatNumber, isBooked FROM seats WHERE showtime_id = ? ORDER BY id ASC";
+
+        List<Integer> ids = new ArrayList<>();
+        List<String> numbers = new ArrayList<>();
+        List<Boolean> bookedFlags = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, showtimeId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                    numbers.add(rs.getString(2));
+                    bookedFlags.add(rs.getBoolean(3));
+                }
+            }
+        }
+
+        int[] seatIds = new int[ids.size()];
+        boolean[] booked = new boolean[ids.size()];
+        for (int i = 0; i < seatIds.length; i++) {
+            seatIds[i] = ids.get(i);
+            booked[i] = bookedFlags.get(i);
+        }
+        return new ShowtimeSeatMap(showtimeId, seatIds, numbers.toArray(new String[0]), booked);
+    }
+
+    /**
+     * Reloads only the booked state of a showtime, as a bitset matching the map's layout
+     */
+    long[] loadBookedBits(ShowtimeSeatMap seatMap) throws SQLException {
+        String query = "SELECT id FROM seats WHERE showtime_id = ? AND isBooked = true";
+
+        long[] bits = new long[(seatMap.size() + 63) >>> 6];
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, seatMap.getShowtimeId());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int index = seatMap.indexOf(rs.getInt(1));
+                    if (index >= 0) {
+                        bits[index >>> 6] |= 1L << index;
+                    }
+                }
+            }
+        }
+        return bits;
     }
 
     public boolean updateSeatStatus(int seatId, boolean isBooked) {
         String query = "UPDATE seats SET isBooked = ? WHERE id = ?";
 
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setBoolean(1, isBooked);
             stmt.setInt(2, seatId);
 
@@ -134,17 +167,4 @@ public class SeatDAO {
         System.err.println("Message: " + e.getMessage());
         e.printStackTrace();
     }
-
-    /**
-     * Closes the database connection
-     */
-    public void closeConnection() {
-        try {
-            if (conn != null && !conn.isClosed()) {
-                conn.close();
-            }
-        } catch (SQLException e) {
-            System.err.println("Failed to close connection: " + e.getMessage());
-        }
-    }
 }
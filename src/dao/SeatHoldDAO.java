@@ -0,0 +1,106 @@
+package dao;
+
+import config.AppConfig;
+import database.DatabaseConnection;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Time-limited holds on seats claimed by unpaid bookings.
+ *
+ * Expiry times are computed with the database clock so kiosks with skewed clocks
+ * agree on when a hold runs out.
+ */
+public class SeatHoldDAO {
+    public static final int DEFAULT_HOLD_TTL_SECONDS = AppConfig.getInt("holds.ttlSeconds", 120);
+
+    /**
+     * Creates one hold per seat using the caller's connection, so holds are written
+     * in the same transaction as the claim itself
+     */
+    public void createHolds(Connection conn, int bookingId, List<Integer> seatIds, int ttlSeconds) throws SQLException {
+        String query = "INSERT INTO seat_holds (seat_id, booking_id, expires_at) " +
+                "VALUES (?, ?, TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP))";
+
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            for (Integer seatId : seatIds) {
+                stmt.setInt(1, seatId);
+                stmt.setInt(2, bookingId);
+                stmt.setInt(3, ttlSeconds);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Pushes the expiry of every hold of a booking forward.
+     * @return false if the booking no longer holds any seat (it expired and was released)
+     */
+    public boolean extendHolds(int bookingId, int ttlSeconds) {
+        String query = "UPDATE seat_holds SET expires_at = TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP) WHERE booking_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, ttlSeconds);
+            stmt.setInt(2, bookingId);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Failed to extend seat holds: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Removes the holds of a booking using the caller's connection
+     * @return number of holds removed
+     */
+    public int deleteHolds(Connection conn, int bookingId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM seat_holds WHERE booking_id = ?")) {
+            stmt.setInt(1, bookingId);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Releases up to batchSize bookings whose holds have expired: their seats are freed and
+     * the unpaid bookings removed, all in one transaction per batch.
+     * @return number of bookings released
+     */
+    public int releaseExpiredHolds(int batchSize) {
+        try {
+            return DatabaseConnection.inTransaction(conn -> {
+                List<Integer> bookingIds = lockExpiredBookings(conn, batchSize);
+                if (!bookingIds.isEmpty()) {
+                    BookingDAO.releaseUnpaidBookings(conn, bookingIds);
+                }
+                return bookingIds.size();
+            });
+        } catch (SQLException e) {
+            System.err.println("Failed to release expired seat holds: " + e.getMessage());
+        }
+        return 0;
+    }
+
+    private List<Integer> lockExpiredBookings(Connection conn, int batchSize) throws SQLException {
+        // Locking the hold rows makes a concurrent extend or payment confirmation wait for us
+        String query = "SELECT seat_id, booking_id FROM seat_holds WHERE expires_at < CURRENT_TIMESTAMP " +
+                "ORDER BY expires_at LIMIT ? FOR UPDATE";
+
+        List<Integer> bookingIds = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, batchSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int bookingId = rs.getInt(2);
+                    if (!bookingIds.contains(bookingId)) {
+                        bookingIds.add(bookingId);
+                    }
+                }
+            }
+        }
+        return bookingIds;
+    }
+}
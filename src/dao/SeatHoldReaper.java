@@ -0,0 +1,60 @@
+package dao;
+
+import config.AppConfig;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that releases seats whose holds have expired, e.g. because the payment
+ * window was closed or the kiosk crashed before the booking was paid.
+ */
+public class SeatHoldReaper {
+    private static final long INTERVAL_SECONDS = AppConfig.getLong("holds.reaperIntervalSeconds", 5);
+    private static final int BATCH_SIZE = AppConfig.getInt("holds.reaperBatchSize", 100);
+
+    private static ScheduledExecutorService scheduler;
+
+    public static synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "seat-hold-reaper");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(SeatHoldReaper::reap, INTERVAL_SECONDS, INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Releases expired holds batch by batch until none are left, keeping each
+     * transaction (and the locks it holds) small
+     */
+    static void reap() {
+        SeatHoldDAO seatHoldDAO = new SeatHoldDAO();
+        try {
+            int released;
+            int total = 0;
+            do {
+                released = seatHoldDAO.releaseExpiredHolds(BATCH_SIZE);
+                total += released;
+            } while (released > 0 && !Thread.currentThread().isInterrupted());
+
+            if (total > 0) {
+                System.out.println("Released seats of " + total + " expired booking(s)");
+                SeatInventory.getInstance().markAllStale();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Seat hold reaper failed: " + e.getMessage());
+        }
+    }
+}
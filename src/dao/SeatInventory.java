@@ -0,0 +1,191 @@
+package dao;
+
+import config.AppConfig;
+import model.SeatClaimResult;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process seat inventory: one {@link ShowtimeSeatMap} per showtime, loaded lazily from the
+ * seats table and kept in sync by writing claims and releases through to the database.
+ *
+ * The database stays the final arbiter between kiosks - claims still go through
+ * {@link BookingDAO#claimSeats} - but availability checks, free-seat counts and seat map
+ * rendering are served from memory. Changes made by other processes are picked up by
+ * reloading the booked bits once they are older than {@link #MAX_STATE_AGE_MS}.
+ *
+ * Concurrent requests for a showtime whose map is missing share a single load, and concurrent
+ * requests for the same stale map share a single refresh, so a popular showtime costs one query
+ * per staleness window rather than one per request.
+ */
+public class SeatInventory {
+    private static final int MAX_SHOWTIMES = AppConfig.getInt("inventory.maxShowtimes", 256);
+    private static final long MAX_STATE_AGE_MS = AppConfig.getLong("inventory.maxStateAgeMs", 5_000);
+
+    private static final SeatInventory instance = new SeatInventory();
+
+    private final SeatDAO seatDAO = new SeatDAO();
+    private final BookingDAO bookingDAO = new BookingDAO();
+    private final SingleFlight<Integer, ShowtimeSeatMap> seatMapLoads = new SingleFlight<>();
+    // Keyed by the map itself, so a refresh of a map that was invalidated meanwhile is never
+    // joined by callers of its replacement
+    private final SingleFlight<ShowtimeSeatMap, Boolean> seatMapRefreshes = new SingleFlight<>();
+
+    // Least recently used showtimes are dropped once MAX_SHOWTIMES maps are loaded
+    private final Map<Integer, ShowtimeSeatMap> seatMaps = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, ShowtimeSeatMap> eldest) {
+            return size() > MAX_SHOWTIMES;
+        }
+    };
+
+    private SeatInventory() {
+    }
+
+    public static SeatInventory getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the seat map of a showtime, loading it on first use and refreshing its booked
+     * state when it is stale.
+     * @return the seat map, or null if it could not be loaded
+     */
+    public ShowtimeSeatMap getSeatMap(int showtimeId) {
+        ShowtimeSeatMap seatMap;
+        synchronized (seatMaps) {
+            seatMap = seatMaps.get(showtimeId);
+        }
+
+        try {
+            if (seatMap == null) {
+                return seatMapLoads.run(showtimeId, () -> loadSeatMap(showtimeId));
+            }
+            if (seatMap.needsRefresh(MAX_STATE_AGE_MS)) {
+                ShowtimeSeatMap stale = seatMap;
+                if (!seatMapRefreshes.run(stale, () -> refresh(showtimeId, stale))) {
+                    // Invalidated or evicted since the lookup: its replacement is the one to use
+                    return seatMapLoads.run(showtimeId, () -> loadSeatMap(showtimeId));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Failed to load seat inventory for showtime " + showtimeId + ": " + e.getMessage());
+        }
+        return seatMap;
+    }
+
+    private ShowtimeSeatMap loadSeatMap(int showtimeId) throws SQLException {
+        ShowtimeSeatMap seatMap;
+        synchronized (seatMaps) {
+            // Loaded by a flight that finished after the caller's lookup
+            seatMap = seatMaps.get(showtimeId);
+        }
+        if (seatMap != null) {
+            return seatMap;
+        }
+
+        ShowtimeSeatMap loaded = seatDAO.loadSeatMap(showtimeId);
+        synchronized (seatMaps) {
+            seatMap = seatMaps.putIfAbsent(showtimeId, loaded);
+        }
+        return seatMap != null ? seatMap : loaded;
+    }
+
+    /**
+     * @return false if the map is no longer the showtime's current one; it is then left as is,
+     *         since it no longer receives claims and releases
+     */
+    private boolean refresh(int showtimeId, ShowtimeSeatMap seatMap) throws SQLException {
+        synchronized (seatMaps) {
+            if (seatMaps.get(showtimeId) != seatMap) {
+                return false;
+            }
+        }
+        // Checked again: a flight that finished after the caller's check may have refreshed it
+        if (seatMap.needsRefresh(MAX_STATE_AGE_MS)) {
+            seatMap.replaceState(seatDAO.loadBookedBits(seatMap));
+        }
+        return true;
+    }
+
+    public boolean isFree(int showtimeId, int seatId) {
+        ShowtimeSeatMap seatMap = getSeatMap(showtimeId);
+        return seatMap != null && seatMap.isFree(seatId);
+    }
+
+    public int countFree(int showtimeId) {
+        ShowtimeSeatMap seatMap = getSeatMap(showtimeId);
+        return seatMap != null ? seatMap.countFree() : 0;
+    }
+
+    /**
+     * Claims seats for a new booking. Seats already known to be taken are rejected without a
+     * database round trip; otherwise the claim is written through and the map updated with
+     * the outcome.
+     */
+    public SeatClaimResult claim(int showtimeId, List<Integer> seatIds, int userId) {
+        ShowtimeSeatMap seatMap = getSeatMap(showtimeId);
+        if (seatMap != null && !seatMap.allFree(seatIds)) {
+            List<Integer> lost = new ArrayList<>();
+            for (Integer seatId : seatIds) {
+                if (!seatMap.isFree(seatId)) {
+                    lost.add(seatId);
+                }
+            }
+            return SeatClaimResult.lost(lost);
+        }
+
+        SeatClaimResult result = bookingDAO.claimSeats(showtimeId, seatIds, userId);
+        if (seatMap != null) {
+            if (result.isSuccess()) {
+                seatMap.claim(result.getClaimedSeatIds());
+            } else {
+                // Someone else got there first; remember it so the next check is local
+                seatMap.claim(result.getLostSeatIds());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Cancels an unpaid booking and frees its seats in the database and in memory
+     */
+    public boolean release(int showtimeId, List<Integer> seatIds, int bookingId) {
+        boolean released = bookingDAO.releaseBooking(bookingId);
+        if (released) {
+            ShowtimeSeatMap seatMap;
+            synchronized (seatMaps) {
+                seatMap = seatMaps.get(showtimeId);
+            }
+            if (seatMap != null) {
+                seatMap.release(seatIds);
+            }
+        }
+        return released;
+    }
+
+    /**
+     * Drops the cached map of a showtime, e.g. after its seats were re-created or deleted
+     */
+    public void invalidate(int showtimeId) {
+        synchronized (seatMaps) {
+            seatMaps.remove(showtimeId);
+        }
+    }
+
+    /**
+     * Forces every cached map to reload its booked state on next access, e.g. after the
+     * reaper released seats behind the inventory's back
+     */
+    public void markAllStale() {
+        synchronized (seatMaps) {
+            for (ShowtimeSeatMap seatMap : seatMaps.values()) {
+                seatMap.markStale();
+            }
+        }
+    }
+}
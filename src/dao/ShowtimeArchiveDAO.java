@@ -0,0 +1,101 @@
+package dao;
+
+import database.DatabaseConnection;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static dao.BookingDAO.bindIds;
+import static dao.BookingDAO.placeholders;
+
+/**
+ * Moves past showtimes, with their bookings, booked seats and payments, into the archive tables.
+ *
+ * Each batch is copied and removed with a fixed number of set-based statements in a single
+ * transaction, so a batch is either fully archived or left untouched.
+ */
+public class ShowtimeArchiveDAO {
+
+    /**
+     * Archives up to batchSize showtimes that started before the cutoff, oldest first.
+     * Soft-deleted showtimes are left to the purger.
+     * @return IDs of the archived showtimes, empty when nothing is left to archive
+     */
+    public List<Integer> archiveShowtimesBefore(LocalDateTime cutoff, int batchSize) {
+        try {
+            List<Integer> archived = DatabaseConnection.inTransaction(conn -> {
+                List<Integer> showtimeIds = lockShowtimesBefore(conn, cutoff, batchSize);
+                if (!showtimeIds.isEmpty()) {
+                    copyToArchive(conn, showtimeIds);
+                    deleteArchived(conn, showtimeIds);
+                }
+                return showtimeIds;
+            });
+            ShowtimeDAO.invalidateCache(archived);
+            return archived;
+        } catch (SQLException e) {
+            System.err.println("Failed to archive past showtimes: " + e.getMessage());
+        }
+        return List.of();
+    }
+
+    private List<Integer> lockShowtimesBefore(Connection conn, LocalDateTime cutoff, int batchSize) throws SQLException {
+        String query = "SELECT id FROM Showtime WHERE dateTime < ? AND deleted_at IS NULL " +
+                "ORDER BY dateTime LIMIT ? FOR UPDATE";
+
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(cutoff));
+            stmt.setInt(2, batchSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private void copyToArchive(Connection conn, List<Integer> showtimeIds) throws SQLException {
+        String ids = placeholders(showtimeIds.size());
+        String bookings = "SELECT id FROM bookings WHERE showtime_id IN (" + ids + ")";
+
+        execute(conn, showtimeIds,
+                "INSERT INTO Showtime_archive (id, movie_id, dateTime, hall) " +
+                        "SELECT id, movie_id, dateTime, hall FROM Showtime WHERE id IN (" + ids + ")");
+        execute(conn, showtimeIds,
+                "INSERT INTO Bookings_archive (id, user_id, movie_id, showtime_id, isPaid) " +
+                        "SELECT id, user_id, movie_id, showtime_id, isPaid FROM bookings WHERE showtime_id IN (" + ids + ")");
+        // Seats are deleted with the showtime, so keep the seat number next to the link
+        execute(conn, showtimeIds,
+                "INSERT INTO Booking_Seats_archive (booking_id, seat_id, seatNumber) " +
+                        "SELECT bs.booking_id, bs.seat_id, s.seatNumber FROM booking_seats bs " +
+                        "JOIN seats s ON s.id = bs.seat_id WHERE s.showtime_id IN (" + ids + ")");
+        execute(conn, showtimeIds,
+                "INSERT INTO Payment_archive (id, booking_id, amount, PaymentStatus, payment_date, payment_method) " +
+                        "SELECT id, booking_id, amount, PaymentStatus, payment_date, payment_method FROM Payment " +
+                        "WHERE booking_id IN (" + bookings + ")");
+    }
+
+    private void deleteArchived(Connection conn, List<Integer> showtimeIds) throws SQLException {
+        String ids = placeholders(showtimeIds.size());
+        String bookings = "SELECT id FROM bookings WHERE showtime_id IN (" + ids + ")";
+
+        // Children first, so no foreign key is violated along the way
+        execute(conn, showtimeIds, "DELETE FROM seat_holds WHERE booking_id IN (" + bookings + ")");
+        execute(conn, showtimeIds, "DELETE FROM booking_seats WHERE booking_id IN (" + bookings + ")");
+        execute(conn, showtimeIds, "DELETE FROM Payment WHERE booking_id IN (" + bookings + ")");
+        execute(conn, showtimeIds, "DELETE FROM bookings WHERE showtime_id IN (" + ids + ")");
+        execute(conn, showtimeIds, "DELETE FROM seats WHERE showtime_id IN (" + ids + ")");
+        execute(conn, showtimeIds, "DELETE FROM Showtime WHERE id IN (" + ids + ")");
+    }
+
+    private static void execute(Connection conn, List<Integer> showtimeIds, String sql) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            bindIds(stmt, 1, showtimeIds);
+            stmt.executeUpdate();
+        }
+    }
+}
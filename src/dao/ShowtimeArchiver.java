@@ -0,0 +1,67 @@
+package dao;
+
+import config.AppConfig;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that moves showtimes from previous days into the archive tables, keeping
+ * the live tables small without losing booking and payment history.
+ */
+public class ShowtimeArchiver {
+    private static final long INITIAL_DELAY_SECONDS = AppConfig.getLong("archiver.initialDelaySeconds", 30);
+    private static final long INTERVAL_SECONDS = AppConfig.getLong("archiver.intervalSeconds", 60 * 60);
+    private static final int BATCH_SIZE = AppConfig.getInt("archiver.batchSize", 50);
+
+    private static ScheduledExecutorService scheduler;
+
+    public static synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "showtime-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(ShowtimeArchiver::archive, INITIAL_DELAY_SECONDS, INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Archives showtimes that started before today batch by batch until none are left
+     */
+    static void archive() {
+        ShowtimeArchiveDAO archiveDAO = new ShowtimeArchiveDAO();
+        LocalDateTime cutoff = LocalDate.now().atStartOfDay();
+        try {
+            List<Integer> archived;
+            int total = 0;
+            do {
+                archived = archiveDAO.archiveShowtimesBefore(cutoff, BATCH_SIZE);
+                for (Integer showtimeId : archived) {
+                    SeatInventory.getInstance().invalidate(showtimeId);
+                    HallSchedule.getInstance().remove(showtimeId);
+                }
+                total += archived.size();
+            } while (!archived.isEmpty() && !Thread.currentThread().isInterrupted());
+
+            if (total > 0) {
+                System.out.println("Archived " + total + " past showtime(s)");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Showtime archiver failed: " + e.getMessage());
+        }
+    }
+}
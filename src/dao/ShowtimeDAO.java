@@ -1,25 +1,74 @@
 package dao;
 
+import config.AppConfig;
 import database.DatabaseConnection;
+import model.ScheduledShowtime;
 import model.Showtime;
+import model.ShowtimeListing;
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class ShowtimeDAO {
-    private Connection conn;
+    private static final EntityCache<Showtime> cache = new EntityCache<>("showtime",
+            AppConfig.getInt("cache.showtime.maxSize", 1000), AppConfig.getLong("cache.ttlSeconds", 60));
 
-    public ShowtimeDAO() {
+    /**
+     * Hit rate and size of the showtime-by-ID cache
+     */
+    public static EntityCacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    /**
+     * Drops every cached showtime, e.g. after a movie and all its showtimes were deleted
+     */
+    static void invalidateCache() {
+        cache.invalidateAll();
+    }
+
+    static void invalidateCache(List<Integer> showtimeIds) {
+        for (int id : showtimeIds) {
+            cache.invalidate(id);
+        }
+    }
+
+    public boolean addShowtime(Showtime showtime) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            boolean added = addShowtime(conn, showtime);
+            cache.invalidate(showtime.getId());
+            return added;
+        } catch (SQLException e) {
+            System.err.println("Failed to add showtime: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Creates a showtime and its seat grid in a single transaction, so a failure
+     * never leaves a showtime without seats behind
+     */
+    public boolean addShowtimeWithSeats(Showtime showtime, int rows, int cols) {
         try {
-            conn = DatabaseConnection.getConnection();
+            boolean added = DatabaseConnection.inTransaction(conn -> {
+                if (!addShowtime(conn, showtime)) {
+                    throw new SQLException("Showtime insert affected no rows");
+                }
+                new SeatDAO().initializeSeatsForShowtime(conn, showtime.getId(), rows, cols);
+                return true;
+            });
+            cache.invalidate(showtime.getId());
+            return added;
         } catch (SQLException e) {
-            System.err.println("Database connection failed: " + e.getMessage());
-            e.printStackTrace();
+            System.err.println("Failed to add showtime with seats: " + e.getMessage());
         }
+        return false;
     }
 
-    public boolean addShowtime(Showtime showtime) {
+    private boolean addShowtime(Connection conn, Showtime showtime) throws SQLException {
         String query = "INSERT INTO Showtime (movie_id, dateTime, hall) VALUES (?, ?, ?)";
 
         try (PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
@@ -37,27 +86,21 @@ public class ShowtimeDAO {
                 }
                 return true;
             }
-        } catch (SQLException e) {
-            System.err.println("Failed to add showtime: " + e.getMessage());
         }
         return false;
     }
 
     public Showtime getShowtimeByID(int id) {
-        String query = "SELECT * FROM Showtime WHERE id = ?";
+        return cache.get(id, this::loadShowtimeByID);
+    }
+
+    private Showtime loadShowtimeByID(int id) {
+        String query = "SELECT " + RowMappers.SHOWTIME_COLUMNS + " FROM Showtime WHERE id = ? AND deleted_at IS NULL";
 
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-
-            if (rs.next()) {
-                return new Showtime(
-                        rs.getInt("id"),
-                        rs.getInt("movie_id"),
-                        rs.getTimestamp("dateTime").toLocalDateTime(),
-                        rs.getString("hall")
-                );
-            }
+            return RowMappers.first(stmt, RowMappers.SHOWTIME);
         } catch (SQLException e) {
             System.err.println("Failed to fetch showtime: " + e.getMessage());
         }
@@ -66,20 +109,12 @@ public class ShowtimeDAO {
 
     public List<Showtime> getShowtimesByMovieID(int movieId) {
         List<Showtime> showtimes = new ArrayList<>();
-        String query = "SELECT * FROM Showtime WHERE movie_id = ? ORDER BY dateTime ASC";
+        String query = "SELECT " + RowMappers.SHOWTIME_COLUMNS + " FROM Showtime WHERE movie_id = ? AND deleted_at IS NULL ORDER BY dateTime ASC";
 
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, movieId);
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                showtimes.add(new Showtime(
-                        rs.getInt("id"),
-                        rs.getInt("movie_id"),
-                        rs.getTimestamp("dateTime").toLocalDateTime(),
-                        rs.getString("hall")
-                ));
-            }
+            return RowMappers.list(stmt, RowMappers.SHOWTIME);
         } catch (SQLException e) {
             System.err.println("Failed to fetch showtimes by movie: " + e.getMessage());
         }
@@ -87,71 +122,179 @@ public class ShowtimeDAO {
     }
 
     public List<Showtime> getShowtimesByMovieAndDate(int movieId, LocalDate date) {
+        return getShowtimes(movieId, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Get the showtimes of a movie starting in [from, to). The bare range on dateTime lets
+     * idx_showtime_movie_datetime serve the query instead of scanning the movie's showtimes.
+     */
+    public List<Showtime> getShowtimes(int movieId, LocalDateTime from, LocalDateTime to) {
         List<Showtime> showtimes = new ArrayList<>();
-        String query = "SELECT * FROM Showtime WHERE movie_id = ? AND DATE(dateTime) = ? ORDER BY dateTime ASC";
+        String query = "SELECT " + RowMappers.SHOWTIME_COLUMNS + " FROM Showtime WHERE movie_id = ? AND dateTime >= ? AND dateTime < ? " +
+                "AND deleted_at IS NULL ORDER BY dateTime ASC";
 
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, movieId);
-            stmt.setDate(2, Date.valueOf(date));
-            ResultSet rs = stmt.executeQuery();
-
-            while (rs.next()) {
-                showtimes.add(new Showtime(
-                        rs.getInt("id"),
-                        rs.getInt("movie_id"),
-                        rs.getTimestamp("dateTime").toLocalDateTime(),
-                        rs.getString("hall")
-                ));
-            }
+            stmt.setTimestamp(2, Timestamp.valueOf(from));
+            stmt.setTimestamp(3, Timestamp.valueOf(to));
+            return RowMappers.list(stmt, RowMappers.SHOWTIME);
         } catch (SQLException e) {
-            System.err.println("Failed to fetch showtimes by movie and date: " + e.getMessage());
+            System.err.println("Failed to fetch showtimes by movie and date range: " + e.getMessage());
         }
         return showtimes;
     }
 
+    /**
+     * Streams every showtime to the action in start time order without loading the table into memory.
+     * The connection stays borrowed until the last row, so keep the action short.
+     * @return false if reading failed part way; rows already passed to the action stay processed
+     */
+    public boolean forEachShowtime(Consumer<Showtime> action) {
+        String query = "SELECT " + RowMappers.SHOWTIME_COLUMNS + " FROM Showtime WHERE deleted_at IS NULL ORDER BY dateTime ASC";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            RowMappers.forEach(stmt, RowMappers.SHOWTIME, action);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Failed to stream showtimes: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Get the next page of showtimes in (start time, ID) order, each with its movie title and
+     * seat sales, in one query. The page is an idx_showtime_datetime range; the seat counts are
+     * range scans on the bookings and seats of each showtime in the page.
+     * @param last last listing of the previous page, or null for the first page
+     */
+    public List<ShowtimeListing> getShowtimeListingsAfter(ShowtimeListing last, int limit) {
+        String query = "SELECT " + RowMappers.qualify("s", RowMappers.SHOWTIME_COLUMNS) + ", m.title, " +
+                // Sold means paid for; seats merely held for a pending payment don't count
+                "(SELECT COUNT(*) FROM bookings b JOIN booking_seats bs ON bs.booking_id = b.id " +
+                "WHERE b.showtime_id = s.id AND b.isPaid = true), " +
+                "(SELECT COUNT(*) FROM seats WHERE showtime_id = s.id) " +
+                "FROM Showtime s JOIN Movie m ON m.id = s.movie_id " +
+                "WHERE s.deleted_at IS NULL " +
+                (last != null ? "AND (s.dateTime > ? OR (s.dateTime = ? AND s.id > ?)) " : "") +
+                "ORDER BY s.dateTime, s.id LIMIT ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            int index = 1;
+            if (last != null) {
+                Timestamp start = Timestamp.valueOf(last.getShowtime().getDateTime());
+                stmt.setTimestamp(index++, start);
+                stmt.setTimestamp(index++, start);
+                stmt.setInt(index++, last.getShowtime().getId());
+            }
+            stmt.setInt(index, limit);
+            return RowMappers.list(stmt, rs -> new ShowtimeListing(
+                    RowMappers.SHOWTIME.map(rs),
+                    rs.getString(5),
+                    rs.getInt(6),
+                    rs.getInt(7)
+            ));
+        } catch (SQLException e) {
+            System.err.println("Failed to fetch page of showtime listings: " + e.getMessage());
+        }
+        return new ArrayList<>();
+    }
+
     public List<Showtime> getAllShowtimes() {
         List<Showtime> showtimes = new ArrayList<>();
-        String query = "SELECT * FROM Showtime ORDER BY dateTime ASC";
-
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-
-            while (rs.next()) {
-                showtimes.add(new Showtime(
-                        rs.getInt("id"),
-                        rs.getInt("movie_id"),
-                        rs.getTimestamp("dateTime").toLocalDateTime(),
-                        rs.getString("hall")
-                ));
-            }
+        String query = "SELECT " + RowMappers.SHOWTIME_COLUMNS + " FROM Showtime WHERE deleted_at IS NULL ORDER BY dateTime ASC";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            return RowMappers.list(stmt, RowMappers.SHOWTIME);
         } catch (SQLException e) {
             System.err.println("Failed to fetch all showtimes: " + e.getMessage());
         }
         return showtimes;
     }
 
-    public boolean deleteShowtime(int id) {
-        String query = "DELETE FROM Showtime WHERE id = ?";
+    /**
+     * Loads showtimes starting at or after the given time, with their movie's title and end
+     * time, in one query for the hall schedule index
+     */
+    List<ScheduledShowtime> getScheduledShowtimesFrom(LocalDateTime from) throws SQLException {
+        List<ScheduledShowtime> showtimes = new ArrayList<>();
+        String query = "SELECT s.id, s.movie_id, s.dateTime, s.hall, m.title, m.duration " +
+                "FROM Showtime s JOIN Movie m ON m.id = s.movie_id WHERE s.dateTime >= ? AND s.deleted_at IS NULL";
 
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(from));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    LocalDateTime start = rs.getTimestamp(3).toLocalDateTime();
+                    showtimes.add(new ScheduledShowtime(
+                            rs.getInt(1),
+                            rs.getInt(2),
+                            rs.getString(5),
+                            rs.getString(4),
+                            start,
+                            start.plusMinutes(rs.getInt(6))
+                    ));
+                }
+            }
+        }
+        return showtimes;
+    }
+
+    /**
+     * Hides a showtime from every read path right away. Its seats, bookings and payments stay
+     * until the purger removes them off-peak.
+     */
+    public boolean softDeleteShowtime(int id) {
+        String query = "UPDATE Showtime SET deleted_at = CURRENT_TIMESTAMP WHERE id = ? AND deleted_at IS NULL";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+            boolean deleted = stmt.executeUpdate() > 0;
+            cache.invalidate(id);
+            return deleted;
         } catch (SQLException e) {
-            System.err.println("Failed to delete showtime: " + e.getMessage());
+            System.err.println("Failed to soft delete showtime: " + e.getMessage());
         }
         return false;
     }
 
     /**
-     * Closes the database connection
+     * @return IDs of up to limit soft-deleted showtimes, oldest deletion first
      */
-    public void close() {
-        try {
-            if (conn != null && !conn.isClosed()) {
-                conn.close();
+    List<Integer> getSoftDeletedShowtimeIds(int limit) throws SQLException {
+        String query = "SELECT id FROM Showtime WHERE deleted_at IS NOT NULL ORDER BY deleted_at LIMIT ?";
+
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
             }
+        }
+        return ids;
+    }
+
+    public boolean deleteShowtime(int id) {
+        String query = "DELETE FROM Showtime WHERE id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, id);
+            boolean deleted = stmt.executeUpdate() > 0;
+            cache.invalidate(id);
+            return deleted;
         } catch (SQLException e) {
-            System.err.println("Failed to close database connection: " + e.getMessage());
+            System.err.println("Failed to delete showtime: " + e.getMessage());
         }
+        return false;
     }
 }
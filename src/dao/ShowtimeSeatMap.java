@@ -0,0 +1,153 @@
+package dao;
+
+import model.Seat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compact in-memory seat state of one showtime.
+ *
+ * The seat layout (IDs and seat numbers) never changes after a showtime is created, so it is
+ * kept in two parallel arrays sorted by seat ID. Booked/held state is one bit per seat in a
+ * long[] bitset. Lookups, claims and free counts work on these arrays without allocating.
+ * {@link #toSeats()} hands out one shared, unmodifiable list until the state changes.
+ */
+public class ShowtimeSeatMap {
+    private final int showtimeId;
+    private final int[] seatIds;        // sorted ascending
+    private final String[] seatNumbers; // parallel to seatIds
+    private final long[] booked;
+    private volatile long loadedAt;
+    private volatile boolean stale;
+    private List<Seat> seats; // built on demand, dropped on every state change
+
+    ShowtimeSeatMap(int showtimeId, int[] seatIds, String[] seatNumbers, boolean[] bookedFlags) {
+        this.showtimeId = showtimeId;
+        this.seatIds = seatIds;
+        this.seatNumbers = seatNumbers;
+        this.booked = new long[(seatIds.length + 63) >>> 6];
+        for (int i = 0; i < bookedFlags.length; i++) {
+            if (bookedFlags[i]) {
+                booked[i >>> 6] |= 1L << i;
+            }
+        }
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    public int getShowtimeId() {
+        return showtimeId;
+    }
+
+    public int size() {
+        return seatIds.length;
+    }
+
+    /**
+     * @return position of the seat in this map, or -1 if it doesn't belong to the showtime
+     */
+    public int indexOf(int seatId) {
+        int index = Arrays.binarySearch(seatIds, seatId);
+        return index >= 0 ? index : -1;
+    }
+
+    public int getSeatId(int index) {
+        return seatIds[index];
+    }
+
+    public String getSeatNumber(int index) {
+        return seatNumbers[index];
+    }
+
+    public synchronized boolean isFree(int seatId) {
+        int index = indexOf(seatId);
+        return index >= 0 && (booked[index >>> 6] & (1L << index)) == 0;
+    }
+
+    public synchronized boolean isBookedAt(int index) {
+        return (booked[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * @return true if every seat exists in this showtime and is currently free
+     */
+    public synchronized boolean allFree(List<Integer> ids) {
+        for (int i = 0; i < ids.size(); i++) {
+            if (!isFree(ids.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public synchronized int countFree() {
+        int bookedCount = 0;
+        for (long word : booked) {
+            bookedCount += Long.bitCount(word);
+        }
+        return seatIds.length - bookedCount;
+    }
+
+    /**
+     * Marks the seats as booked/held. Unknown IDs are ignored.
+     */
+    public synchronized void claim(List<Integer> ids) {
+        for (int i = 0; i < ids.size(); i++) {
+            int index = indexOf(ids.get(i));
+            if (index >= 0) {
+                booked[index >>> 6] |= 1L << index;
+            }
+        }
+        seats = null;
+    }
+
+    /**
+     * Marks the seats as free again. Unknown IDs are ignored.
+     */
+    public synchronized void release(List<Integer> ids) {
+        for (int i = 0; i < ids.size(); i++) {
+            int index = indexOf(ids.get(i));
+            if (index >= 0) {
+                booked[index >>> 6] &= ~(1L << index);
+            }
+        }
+        seats = null;
+    }
+
+    /**
+     * Replaces the booked bits with freshly loaded state, keeping the layout
+     */
+    synchronized void replaceState(long[] freshBits) {
+        if (!Arrays.equals(freshBits, booked)) {
+            System.arraycopy(freshBits, 0, booked, 0, booked.length);
+            seats = null;
+        }
+        loadedAt = System.currentTimeMillis();
+        stale = false;
+    }
+
+    void markStale() {
+        stale = true;
+    }
+
+    boolean needsRefresh(long maxAgeMillis) {
+        return stale || System.currentTimeMillis() - loadedAt > maxAgeMillis;
+    }
+
+    /**
+     * Materializes the map as Seat objects, ordered by seat ID. Callers share the same
+     * unmodifiable snapshot until a seat is claimed or released or a reload changes the state.
+     */
+    public synchronized List<Seat> toSeats() {
+        if (seats == null) {
+            List<Seat> snapshot = new ArrayList<>(seatIds.length);
+            for (int i = 0; i < seatIds.length; i++) {
+                snapshot.add(new Seat(seatIds[i], showtimeId, seatNumbers[i], isBookedAt(i)));
+            }
+            seats = Collections.unmodifiableList(snapshot);
+        }
+        return seats;
+    }
+}
@@ -0,0 +1,64 @@
+package dao;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collapses concurrent loads of the same key into one: the first caller runs the query, and
+ * callers arriving while it runs wait for it and get the same result (or the same exception)
+ * instead of running their own. Once the load finishes the key is free again, so this never
+ * serves old results by itself; callers decide how long a result may be reused.
+ */
+final class SingleFlight<K, V> {
+
+    /**
+     * A load that may fail with a database error
+     */
+    @FunctionalInterface
+    interface Load<V> {
+        V load() throws SQLException;
+    }
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    V run(K key, Load<V> load) throws SQLException {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            V value = load.load();
+            own.complete(value);
+            return value;
+        } catch (Throwable t) {
+            own.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> running) throws SQLException {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                // Rethrown per caller, so each one gets its own stack trace
+                throw new SQLException(cause.getMessage(), ((SQLException) cause).getSQLState(),
+                        ((SQLException) cause).getErrorCode(), cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
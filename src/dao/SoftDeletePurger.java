@@ -0,0 +1,154 @@
+package dao;
+
+import config.AppConfig;
+
+import java.sql.SQLException;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that physically removes soft-deleted showtimes and movies, with their seats,
+ * bookings and payments, during the off-peak window only.
+ *
+ * Each showtime or movie is removed through {@link CascadeDeleteHelper} in small chunks, so
+ * purge I/O never holds locks long enough to stall the booking path. The rows removed per step
+ * are logged; one that fails to purge is logged and retried on the next run.
+ */
+public class SoftDeletePurger {
+    private static final long INTERVAL_MINUTES = AppConfig.getLong("purger.intervalMinutes", 15);
+    private static final LocalTime OFF_PEAK_START = LocalTime.parse(AppConfig.getString("purger.offPeakStart", "02:00"));
+    private static final LocalTime OFF_PEAK_END = LocalTime.parse(AppConfig.getString("purger.offPeakEnd", "06:00"));
+    private static final int BATCH_SIZE = AppConfig.getInt("purger.batchSize", 20);
+    private static final int CHUNK_SIZE = AppConfig.getInt("purger.chunkSize", 500);
+
+    private static ScheduledExecutorService scheduler;
+
+    public static synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "soft-delete-purger");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(SoftDeletePurger::purge, INTERVAL_MINUTES, INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    static boolean isOffPeak(LocalTime time) {
+        return !time.isBefore(OFF_PEAK_START) && time.isBefore(OFF_PEAK_END);
+    }
+
+    /**
+     * Purges soft-deleted showtimes, then movies, batch by batch until none are left or the
+     * off-peak window closes
+     */
+    static void purge() {
+        ShowtimeDAO showtimeDAO = new ShowtimeDAO();
+        MovieDAO movieDAO = new MovieDAO();
+        try {
+            int showtimes = purgeAll("showtime", showtimeDAO::getSoftDeletedShowtimeIds, (showtimeId, steps) -> {
+                if (!CascadeDeleteHelper.safeDeleteShowtime(showtimeId, CHUNK_SIZE, steps)) {
+                    return false;
+                }
+                SeatInventory.getInstance().invalidate(showtimeId);
+                return true;
+            });
+            int movies = purgeAll("movie", movieDAO::getSoftDeletedMovieIds,
+                    (movieId, steps) -> CascadeDeleteHelper.safeDeleteMovie(movieId, CHUNK_SIZE, steps));
+
+            if (showtimes > 0 || movies > 0) {
+                System.out.println("Purged " + showtimes + " deleted showtime(s) and " + movies + " deleted movie(s)");
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Soft delete purger failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Purges soft-deleted rows of one table, oldest deletion first. A row whose cascade fails is
+     * skipped for the rest of the run, so it can't hold up the rows deleted after it.
+     * @return number of rows purged
+     */
+    private static int purgeAll(String what, IdSource source, Purge purge) throws SQLException {
+        Set<Integer> failed = new HashSet<>();
+        int purged = 0;
+        List<Integer> ids;
+        while (canContinue() && !(ids = nextBatch(source, failed)).isEmpty()) {
+            for (Integer id : ids) {
+                if (!canContinue()) {
+                    return purged;
+                }
+                StepLog steps = new StepLog();
+                if (purge.purge(id, steps)) {
+                    System.out.println("Purged deleted " + what + " " + id + ": " + steps);
+                    purged++;
+                } else {
+                    System.err.println("Failed to purge deleted " + what + " " + id + ", skipping it until the next run");
+                    failed.add(id);
+                }
+            }
+        }
+        return purged;
+    }
+
+    /**
+     * Fetches the next batch, over-fetching by the failed IDs so they don't crowd out the rest
+     */
+    private static List<Integer> nextBatch(IdSource source, Set<Integer> failed) throws SQLException {
+        List<Integer> ids = source.next(BATCH_SIZE + failed.size());
+        ids.removeAll(failed);
+        return ids;
+    }
+
+    /**
+     * Next soft-deleted IDs of a table, oldest deletion first
+     */
+    @FunctionalInterface
+    private interface IdSource {
+        List<Integer> next(int limit) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface Purge {
+        boolean purge(int id, CascadeDeleteHelper.ProgressListener steps);
+    }
+
+    /**
+     * Remembers the rows deleted by each step of a cascade, for the purge log
+     */
+    private static final class StepLog implements CascadeDeleteHelper.ProgressListener {
+        private final Map<String, Long> rowsByStep = new LinkedHashMap<>();
+
+        @Override
+        public void onProgress(int stepIndex, int stepCount, String step, long rowsDeleted) {
+            rowsByStep.put(step, rowsDeleted);
+        }
+
+        @Override
+        public String toString() {
+            StringJoiner joiner = new StringJoiner(", ");
+            rowsByStep.forEach((step, rows) -> joiner.add(rows + " " + step));
+            return joiner.toString();
+        }
+    }
+
+    private static boolean canContinue() {
+        return isOffPeak(LocalTime.now()) && !Thread.currentThread().isInterrupted();
+    }
+}
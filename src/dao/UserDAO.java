@@ -3,20 +3,16 @@ package dao;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import database.DatabaseConnection;
 import model.User;
-import model.UserRole;
 
 public class UserDAO {
-    private Connection conn;
-
-    public UserDAO() throws SQLException {
-        this.conn = DatabaseConnection.getConnection();
-    }
 
     public boolean addUser(User user) {
         String query = "INSERT INTO users (name, email, password, role) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, user.getName());
             stmt.setString(2, user.getEmail());
             stmt.setString(3, user.getPassword());
@@ -40,49 +36,101 @@ public class UserDAO {
     }
 
     public User getUserByEmail(String email) {
-        String query = "SELECT * FROM users WHERE email = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+        String query = "SELECT " + RowMappers.USER_COLUMNS + " FROM users WHERE email = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, email);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return new User(
-                            rs.getInt("id"),
-                            rs.getString("name"),
-                            rs.getString("email"),
-                            rs.getString("password"),
-                            UserRole.valueOf(rs.getString("role"))
-                    );
-                }
-            }
+            return RowMappers.first(stmt, RowMappers.USER);
         } catch (SQLException e) {
             System.err.println("Error getting user by email: " + e.getMessage());
         }
         return null;
     }
 
+    /**
+     * Get every user without the password, which stays null, for listings
+     */
     public List<User> getAllUsers() {
         List<User> users = new ArrayList<>();
-        String query = "SELECT * FROM users";
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-            while (rs.next()) {
-                users.add(new User(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        UserRole.valueOf(rs.getString("role"))
-                ));
-            }
+        String query = "SELECT " + RowMappers.USER_PUBLIC_COLUMNS + " FROM users";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            return RowMappers.list(stmt, RowMappers.USER_PUBLIC);
         } catch (SQLException e) {
             System.err.println("Error getting all users: " + e.getMessage());
         }
         return users;
     }
 
+    /**
+     * Get users whose name or email starts with the given text, without passwords, ordered by
+     * name. Each branch of the UNION is a range scan on idx_users_name or the email index, so the
+     * cost depends on the number of matches read (at most limit per branch), not on the table
+     * size. Matching is case-insensitive through the columns' collation.
+     */
+    public List<User> searchUsers(String prefix, int limit) {
+        String columns = RowMappers.USER_PUBLIC_COLUMNS;
+        // No derived table around the UNION: H2 can't use the indexes for a parameterized
+        // prefix inside one, and ORDER BY / LIMIT apply to the UNION result anyway
+        String query = "(SELECT " + columns + " FROM users WHERE name LIKE ? ESCAPE '!' ORDER BY name LIMIT ?) " +
+                "UNION " +
+                "(SELECT " + columns + " FROM users WHERE email LIKE ? ESCAPE '!' ORDER BY email LIMIT ?) " +
+                "ORDER BY name, id LIMIT ?";
+        String pattern = MovieDAO.escapeLike(prefix) + "%";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, pattern);
+            stmt.setInt(2, limit);
+            stmt.setString(3, pattern);
+            stmt.setInt(4, limit);
+            stmt.setInt(5, limit);
+            return RowMappers.list(stmt, RowMappers.USER_PUBLIC);
+        } catch (SQLException e) {
+            System.err.println("Error searching users: " + e.getMessage());
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Get the next page of users in ID order, without passwords
+     * @param last last user of the previous page, or null for the first page
+     */
+    public List<User> getUsersAfter(User last, int limit) {
+        String query = "SELECT " + RowMappers.USER_PUBLIC_COLUMNS + " FROM users WHERE id > ? ORDER BY id LIMIT ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, last != null ? last.getID() : 0);
+            stmt.setInt(2, limit);
+            return RowMappers.list(stmt, RowMappers.USER_PUBLIC);
+        } catch (SQLException e) {
+            System.err.println("Error getting page of users: " + e.getMessage());
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Streams every user, without the password, to the action in ID order without loading
+     * the table into memory. The connection stays borrowed until the last row, so keep the
+     * action short.
+     * @return false if reading failed part way; rows already passed to the action stay processed
+     */
+    public boolean forEachUser(Consumer<User> action) {
+        String query = "SELECT " + RowMappers.USER_PUBLIC_COLUMNS + " FROM users ORDER BY id";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            RowMappers.forEach(stmt, RowMappers.USER_PUBLIC, action);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error streaming users: " + e.getMessage());
+            return false;
+        }
+    }
+
     public boolean deleteUser(int id) {
         String query = "DELETE FROM users WHERE id = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setInt(1, id);
             return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
@@ -90,14 +138,4 @@ public class UserDAO {
             return false;
         }
     }
-
-    public void close() {
-        try {
-            if (conn != null && !conn.isClosed()) {
-                conn.close();
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing connection: " + e.getMessage());
-        }
-    }
 }
@@ -0,0 +1,379 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Small bounded JDBC connection pool.
+ *
+ * Connections handed out by {@link #borrow()} are proxies: calling close() returns the
+ * physical connection to the pool instead of closing it, so DAOs keep using the usual
+ * try-with-resources pattern. A background housekeeper evicts connections that stayed idle
+ * too long, validates the rest and reports connections that were borrowed but never returned.
+ * Statements created through a borrowed connection get the pool's query timeout, and new
+ * physical connections run an optional init statement, e.g. to set the lock wait timeout.
+ * Each physical connection keeps a {@link StatementCache} so prepareStatement with a SQL text
+ * it has seen before reuses the already prepared statement.
+ */
+public class ConnectionPool {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final int minIdle;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int queryTimeoutSeconds;
+    private final String initSql;
+    private final int statementCacheSize;
+
+    // Most recently returned connections sit at the head so hot connections are reused
+    // and cold ones drift to the tail where the housekeeper evicts them.
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+
+    // Metrics
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowNanos = new LongAdder();
+    private final AtomicLong maxBorrowNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    private volatile boolean shutdown;
+
+    public ConnectionPool(String url, String user, String password,
+                          int maxSize, int minIdle, long borrowTimeoutMillis,
+                          long idleTimeoutMillis, long validationIntervalMillis, long leakThresholdMillis,
+                          int queryTimeoutSeconds, String initSql, int statementCacheSize) {
+        if (maxSize <= 0 || minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: max=" + maxSize + ", minIdle=" + minIdle);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minIdle = minIdle;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+        this.initSql = initSql;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                validationIntervalMillis, validationIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the configured borrow timeout when the pool is exhausted.
+     * The caller must close the returned connection to give it back.
+     */
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long start = System.nanoTime();
+        waiters.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection ("
+                        + active.size() + " active, " + idle.size() + " idle)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+
+        PooledConnection pooled;
+        try {
+            pooled = takeIdleOrCreate();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        pooled.borrowedAt = System.currentTimeMillis();
+        // Capturing the stack is the expensive part of a borrow, so only when leaks are tracked
+        pooled.borrowSite = leakThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null;
+        pooled.leakReported = false;
+        active.add(pooled);
+
+        long elapsed = System.nanoTime() - start;
+        borrowCount.increment();
+        borrowNanos.add(elapsed);
+        maxBorrowNanos.accumulateAndGet(elapsed, Math::max);
+
+        return pooled.newHandle();
+    }
+
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            closeQuietly(pooled);
+        }
+        return new PooledConnection(openPhysical());
+    }
+
+    private Connection openPhysical() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        if (initSql != null) {
+            try (Statement stmt = physical.createStatement()) {
+                stmt.execute(initSql);
+            } catch (SQLException e) {
+                physical.close();
+                throw e;
+            }
+        }
+        return physical;
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            return !pooled.physical.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        active.remove(pooled);
+        pooled.borrowSite = null;
+        try {
+            if (shutdown || pooled.physical.isClosed()) {
+                closeQuietly(pooled);
+                return;
+            }
+            if (pooled.statements != null) {
+                pooled.statements.releaseAll();
+            }
+            // Never hand out a connection with a half-finished transaction
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.lastUsedAt = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            System.err.println("Discarding broken pooled connection: " + e.getMessage());
+            closeQuietly(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Periodic maintenance: evicts connections idle for longer than the idle timeout (keeping
+     * at least minIdle around), validates the remaining idle connections and reports leaks.
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            List<PooledConnection> snapshot = new ArrayList<>(idle);
+            int kept = snapshot.size();
+            for (PooledConnection pooled : snapshot) {
+                // remove() fails if a borrower grabbed it in the meantime
+                if (!idle.remove(pooled)) {
+                    continue;
+                }
+                boolean expired = now - pooled.lastUsedAt > idleTimeoutMillis && kept > minIdle;
+                if (expired || !isValid(pooled)) {
+                    closeQuietly(pooled);
+                    kept--;
+                } else {
+                    idle.offerLast(pooled);
+                }
+            }
+
+            for (PooledConnection pooled : active) {
+                Throwable borrowSite = pooled.borrowSite;
+                if (borrowSite != null && !pooled.leakReported && now - pooled.borrowedAt > leakThresholdMillis) {
+                    pooled.leakReported = true;
+                    leaks.increment();
+                    System.err.println("Possible connection leak: connection held for "
+                            + (now - pooled.borrowedAt) + " ms without being returned");
+                    borrowSite.printStackTrace();
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Connection pool housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void closeQuietly(PooledConnection pooled) {
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Failed to close pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns a point-in-time snapshot of the pool metrics
+     */
+    public PoolStats getStats() {
+        long borrows = borrowCount.sum();
+        double avgMillis = borrows == 0 ? 0 : borrowNanos.sum() / (double) borrows / 1_000_000.0;
+        return new PoolStats(
+                active.size(),
+                idle.size(),
+                waiters.get(),
+                maxSize,
+                borrows,
+                timeouts.sum(),
+                leaks.sum(),
+                avgMillis,
+                maxBorrowNanos.get() / 1_000_000.0,
+                statementCacheHits.sum(),
+                statementCacheMisses.sum()
+        );
+    }
+
+    /**
+     * Stops the housekeeper and closes every idle connection. Connections still borrowed
+     * are closed when they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closeQuietly(pooled);
+        }
+    }
+
+    /**
+     * A physical connection plus the bookkeeping the pool needs about it
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements; // null when statement caching is off
+        private volatile long lastUsedAt = System.currentTimeMillis();
+        private volatile long borrowedAt;
+        private volatile Throwable borrowSite; // null when leak detection is off
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = statementCacheSize > 0
+                    ? new StatementCache(physical, statementCacheSize, statementCacheHits, statementCacheMisses)
+                    : null;
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    /**
+     * Proxy handler for a single borrow. Once closed, the handle is detached from the physical
+     * connection so a stale reference can't use a connection someone else has borrowed since.
+     */
+    private final class Handle implements InvocationHandler {
+        private PooledConnection pooled;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (pooled != null) {
+                        PooledConnection returning = pooled;
+                        pooled = null;
+                        release(returning);
+                    }
+                    return null;
+                case "isClosed":
+                    return pooled == null || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + (pooled == null ? "closed" : pooled.physical) + "]";
+                default:
+                    if (pooled == null) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    Object result;
+                    if (method.getName().equals("prepareStatement") && pooled.statements != null && isCacheable(method)) {
+                        result = pooled.statements.prepare((String) args[0], args.length == 2 ? (Integer) args[1] : null,
+                                (Connection) proxy);
+                    } else {
+                        try {
+                            result = method.invoke(pooled.physical, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                    if (result instanceof Statement && queryTimeoutSeconds > 0) {
+                        ((Statement) result).setQueryTimeout(queryTimeoutSeconds);
+                    }
+                    return result;
+            }
+        }
+
+        /**
+         * Only prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) are cached;
+         * the overloads with result set options or key columns are rare enough to prepare directly
+         */
+        private boolean isCacheable(Method method) {
+            Class<?>[] types = method.getParameterTypes();
+            return types.length == 1 || (types.length == 2 && types[1] == int.class);
+        }
+    }
+}
@@ -1,16 +1,116 @@
 package database;
 
+import config.AppConfig;
+
 import java.sql.Connection;
-import java.sql.Driver;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
+/**
+ * Entry point to the database. The backend is chosen with the db.mode setting (see AppConfig):
+ * <ul>
+ *     <li>mysql (default) - the MySQL server at db.url</li>
+ *     <li>embedded - an H2 database in MySQL mode stored under ./data, e.g. for demo kiosks</li>
+ *     <li>memory - an in-process H2 database that lives as long as the JVM, for tests and benchmarks</li>
+ * </ul>
+ * The embedded modes need the H2 driver on the classpath; SchemaMigrator creates their tables.
+ * They run with IGNORECASE so text comparisons are case-insensitive, as with MySQL's default collation.
+ */
 public class DatabaseConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/MovieBookingDB";
-    private static final String userName = "root";
-    private static final String password = "password123";
+    // Server-side prepared statements pay off because the pool keeps them open (see StatementCache);
+    // useCursorFetch makes a statement's fetch size stream large results instead of buffering them
+    private static final String MYSQL_URL = "jdbc:mysql://localhost:3306/MovieBookingDB?useServerPrepStmts=true&useCursorFetch=true";
+    private static final String EMBEDDED_URL = "jdbc:h2:file:./data/MovieBookingDB;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE";
+    private static final String MEMORY_URL = "jdbc:h2:mem:MovieBookingDB;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final String mode = AppConfig.getString("db.mode", "mysql");
+    private static final String URL = resolveUrl(mode);
+    private static final String userName = AppConfig.getString("db.user", mode.equals("mysql") ? "root" : "sa");
+    private static final String password = AppConfig.getString("db.password", mode.equals("mysql") ? "password123" : "");
+
+    // Pool configuration
+    private static final int MAX_POOL_SIZE = AppConfig.getInt("db.pool.maxSize", 20);
+    private static final int MIN_IDLE = AppConfig.getInt("db.pool.minIdle", 2);
+    private static final long BORROW_TIMEOUT_MS = AppConfig.getLong("db.pool.borrowTimeoutMs", 10_000);
+    private static final long IDLE_TIMEOUT_MS = AppConfig.getLong("db.pool.idleTimeoutMs", 5 * 60_000);
+    private static final long VALIDATION_INTERVAL_MS = AppConfig.getLong("db.pool.validationIntervalMs", 30_000);
+    private static final long LEAK_THRESHOLD_MS = AppConfig.getLong("db.pool.leakThresholdMs", 0); // 0 = off
+    private static final int STATEMENT_CACHE_SIZE = AppConfig.getInt("db.pool.statementCacheSize", 64);
+
+    // Per-connection limits, 0 means the driver default
+    private static final int STATEMENT_TIMEOUT_SECONDS = AppConfig.getInt("db.statementTimeoutSeconds", 0);
+    private static final int LOCK_TIMEOUT_SECONDS = AppConfig.getInt("db.lockTimeoutSeconds", 0);
+
+    private static final ConnectionPool pool = new ConnectionPool(
+            URL, userName, password,
+            MAX_POOL_SIZE, MIN_IDLE, BORROW_TIMEOUT_MS,
+            IDLE_TIMEOUT_MS, VALIDATION_INTERVAL_MS, LEAK_THRESHOLD_MS,
+            STATEMENT_TIMEOUT_SECONDS, lockTimeoutSql(mode, LOCK_TIMEOUT_SECONDS), STATEMENT_CACHE_SIZE
+    );
 
+    /**
+     * Borrows a pooled connection. Closing it returns it to the pool.
+     */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, userName, password);
+        return pool.borrow();
+    }
+
+    /**
+     * Runs the given work inside a single transaction on one pooled connection.
+     * Commits if the work completes normally, rolls back and rethrows otherwise.
+     */
+    public static <T> T inTransaction(SqlWork<T> work) throws SQLException {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                T result = work.execute(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * @return the configured backend: mysql, embedded or memory
+     */
+    public static String getMode() {
+        return mode;
+    }
+
+    private static String resolveUrl(String mode) {
+        switch (mode) {
+            case "mysql":
+                return AppConfig.getString("db.url", MYSQL_URL);
+            case "embedded":
+                return EMBEDDED_URL;
+            case "memory":
+                return MEMORY_URL;
+            default:
+                throw new IllegalStateException("Unknown database mode: " + mode);
+        }
+    }
+
+    /**
+     * @return statement that limits how long a connection waits for a row lock, or null to keep the default
+     */
+    private static String lockTimeoutSql(String mode, int seconds) {
+        if (seconds <= 0) {
+            return null;
+        }
+        return mode.equals("mysql")
+                ? "SET SESSION innodb_lock_wait_timeout = " + seconds
+                : "SET LOCK_TIMEOUT " + seconds * 1000;
+    }
+
+    public static PoolStats getPoolStats() {
+        return pool.getStats();
+    }
+
+    public static void shutdown() {
+        pool.shutdown();
     }
 }
@@ -0,0 +1,96 @@
+package database;
+
+/**
+ * Immutable snapshot of connection pool metrics
+ */
+public class PoolStats {
+    private final int active;
+    private final int idle;
+    private final int waiters;
+    private final int maxSize;
+    private final long totalBorrows;
+    private final long borrowTimeouts;
+    private final long leaksDetected;
+    private final double averageBorrowMillis;
+    private final double maxBorrowMillis;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+
+    public PoolStats(int active, int idle, int waiters, int maxSize, long totalBorrows,
+                     long borrowTimeouts, long leaksDetected, double averageBorrowMillis, double maxBorrowMillis,
+                     long statementCacheHits, long statementCacheMisses) {
+        this.active = active;
+        this.idle = idle;
+        this.waiters = waiters;
+        this.maxSize = maxSize;
+        this.totalBorrows = totalBorrows;
+        this.borrowTimeouts = borrowTimeouts;
+        this.leaksDetected = leaksDetected;
+        this.averageBorrowMillis = averageBorrowMillis;
+        this.maxBorrowMillis = maxBorrowMillis;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getWaiters() {
+        return waiters;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getTotalBorrows() {
+        return totalBorrows;
+    }
+
+    public long getBorrowTimeouts() {
+        return borrowTimeouts;
+    }
+
+    public long getLeaksDetected() {
+        return leaksDetected;
+    }
+
+    public double getAverageBorrowMillis() {
+        return averageBorrowMillis;
+    }
+
+    public double getMaxBorrowMillis() {
+        return maxBorrowMillis;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    /**
+     * @return share of prepareStatement calls served from the statement cache, from 0 to 1
+     */
+    public double getStatementCacheHitRatio() {
+        long total = statementCacheHits + statementCacheMisses;
+        return total == 0 ? 0 : statementCacheHits / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "PoolStats[active=%d, idle=%d, waiters=%d, max=%d, borrows=%d, timeouts=%d, leaks=%d, avgBorrow=%.2fms, maxBorrow=%.2fms, " +
+                        "stmtCacheHits=%d, stmtCacheMisses=%d]",
+                active, idle, waiters, maxSize, totalBorrows, borrowTimeouts, leaksDetected,
+                averageBorrowMillis, maxBorrowMillis, statementCacheHits, statementCacheMisses
+        );
+    }
+}
@@ -0,0 +1,176 @@
+package database;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Brings the database schema up to date at startup.
+ *
+ * Migrations are the SQL scripts in the migrations folder next to this class, named
+ * V&lt;version&gt;__&lt;description&gt;.sql and listed in {@link #MIGRATIONS}. Each one is applied
+ * once, in version order, and recorded in the schema_version table. Applied scripts must
+ * never be edited; schema changes go into a new script.
+ */
+public class SchemaMigrator {
+    private static final String[] MIGRATIONS = {
+            "V1__baseline.sql",
+            "V2__seat_holds.sql",
+            "V3__showtime_movie_datetime_index.sql",
+            "V4__showtime_archive.sql",
+            "V5__soft_delete.sql",
+            "V6__hot_query_indexes.sql",
+            "V7__keyset_pagination_indexes.sql",
+            "V8__user_name_index.sql",
+            "V9__payment_refund_status.sql",
+    };
+
+    // Tables the original movie_booking.sql created in mixed case, and their names since V1
+    private static final String[][] LEGACY_TABLE_NAMES = {
+            {"Seats", "seats"},
+            {"Bookings", "bookings"},
+            {"Booking_Seats", "booking_seats"},
+    };
+
+    /**
+     * Applies every migration that has not been applied yet
+     * @return number of migrations applied
+     */
+    public static int migrate() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            createVersionTable(conn);
+            Set<Integer> applied = getAppliedVersions(conn);
+            if (!applied.contains(1)) {
+                renameLegacyTables(conn);
+            }
+
+            int count = 0;
+            for (String script : MIGRATIONS) {
+                int version = parseVersion(script);
+                if (!applied.contains(version)) {
+                    apply(conn, version, script);
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    private static void createVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INT PRIMARY KEY, " +
+                    "script VARCHAR(255) NOT NULL, " +
+                    "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        }
+    }
+
+    /**
+     * Databases set up with the original movie_booking.sql have Seats, Bookings and
+     * Booking_Seats. Where table names are case sensitive (MySQL on Linux by default) V1 would
+     * create a second, empty set of lower-case tables next to them, so they are renamed first.
+     * Foreign keys follow the rename.
+     */
+    private static void renameLegacyTables(Connection conn) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        if (!meta.supportsMixedCaseIdentifiers()) {
+            return;
+        }
+        for (String[] names : LEGACY_TABLE_NAMES) {
+            if (tableExists(conn, names[0]) && !tableExists(conn, names[1])) {
+                System.out.println("Renaming table " + names[0] + " to " + names[1]);
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("RENAME TABLE " + names[0] + " TO " + names[1]);
+                }
+            }
+        }
+    }
+
+    private static boolean tableExists(Connection conn, String name) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getTables(conn.getCatalog(), null, name, new String[]{"TABLE"})) {
+            while (rs.next()) {
+                // The name is a LIKE pattern, where '_' matches any character
+                if (name.equals(rs.getString("TABLE_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Set<Integer> getAppliedVersions(Connection conn) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version FROM schema_version")) {
+            while (rs.next()) {
+                versions.add(rs.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Runs one script and records it. MySQL commits DDL implicitly, so a script that fails
+     * halfway must be fixed up by hand before the next start; keep scripts small.
+     */
+    private static void apply(Connection conn, int version, String script) throws SQLException {
+        System.out.println("Applying schema migration " + script);
+        for (String sql : readStatements(script)) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(sql);
+            } catch (SQLException e) {
+                throw new SQLException("Migration " + script + " failed at: " + sql, e);
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO schema_version (version, script) VALUES (?, ?)")) {
+            stmt.setInt(1, version);
+            stmt.setString(2, script);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static int parseVersion(String script) {
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+
+    /**
+     * Splits a script into statements on ';', dropping "--" comment lines
+     */
+    static List<String> readStatements(String script) throws SQLException {
+        String text;
+        try (InputStream in = SchemaMigrator.class.getResourceAsStream("migrations/" + script)) {
+            if (in == null) {
+                throw new SQLException("Migration script not found: " + script);
+            }
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Failed to read migration script " + script, e);
+        }
+
+        StringBuilder withoutComments = new StringBuilder();
+        for (String line : text.split("\n")) {
+            if (!line.trim().startsWith("--")) {
+                withoutComments.append(line).append('\n');
+            }
+        }
+
+        List<String> statements = new ArrayList<>();
+        for (String sql : withoutComments.toString().split(";")) {
+            if (!sql.trim().isEmpty()) {
+                statements.add(sql.trim());
+            }
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,12 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A unit of work executed against a single borrowed connection
+ */
+@FunctionalInterface
+public interface SqlWork<T> {
+    T execute(Connection conn) throws SQLException;
+}
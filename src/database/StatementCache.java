@@ -0,0 +1,232 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Prepared statements of one physical connection, kept open across borrows and keyed by SQL text.
+ *
+ * Callers get a proxy whose close() resets the statement and puts it back instead of closing
+ * it, so the usual prepare/execute/close pattern in the DAOs re-executes an already prepared
+ * statement. The cache is bounded and drops the least recently used statement when full. Like
+ * the connection itself, a cache is only ever used by one borrower at a time.
+ */
+final class StatementCache {
+    private final Connection physical;
+    private final int maxSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    private final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+            if (size() <= maxSize) {
+                return false;
+            }
+            eldest.getValue().evict();
+            return true;
+        }
+    };
+
+    StatementCache(Connection physical, int maxSize, LongAdder hits, LongAdder misses) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS / NO_GENERATED_KEYS, or null for the plain overload
+     * @param handle the borrowed connection, returned by the statement's getConnection()
+     */
+    PreparedStatement prepare(String sql, Integer autoGeneratedKeys, Connection handle) throws SQLException {
+        String key = autoGeneratedKeys == null ? sql : autoGeneratedKeys + ":" + sql;
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.inUse) {
+            hits.increment();
+        } else {
+            misses.increment();
+            PreparedStatement stmt = autoGeneratedKeys == null
+                    ? physical.prepareStatement(sql)
+                    : physical.prepareStatement(sql, autoGeneratedKeys);
+            if (cached != null) {
+                // Same SQL prepared twice before the first one was closed, e.g. in a nested
+                // loop: the second one is a plain statement that is really closed afterwards
+                return stmt;
+            }
+            cached = new CachedStatement(stmt);
+            statements.put(key, cached);
+        }
+        cached.inUse = true;
+        return cached.newHandle(handle);
+    }
+
+    /**
+     * Called when the connection goes back to the pool: statements the borrower never closed
+     * are dropped, so a late close() can't interfere with the next borrower.
+     */
+    void releaseAll() {
+        Iterator<CachedStatement> it = statements.values().iterator();
+        while (it.hasNext()) {
+            CachedStatement cached = it.next();
+            if (cached.inUse) {
+                it.remove();
+                cached.discard();
+            }
+        }
+    }
+
+    private static final class CachedStatement {
+        private final PreparedStatement physical;
+        private final List<ResultSet> openResults = new ArrayList<>();
+        private boolean inUse;
+        private boolean evicted;
+        private boolean settingsChanged;
+        private StatementHandle current;
+
+        private CachedStatement(PreparedStatement physical) {
+            this.physical = physical;
+        }
+
+        private PreparedStatement newHandle(Connection connection) {
+            current = new StatementHandle(this, connection);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    current);
+        }
+
+        /**
+         * Closes the statement right away unless it is in use, in which case the borrower's
+         * close() does it
+         */
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        /**
+         * Closes the statement even if a borrower still holds it; its handle stops working
+         */
+        private void discard() {
+            if (current != null) {
+                current.detach();
+                current = null;
+            }
+            inUse = false;
+            evicted = true;
+            closeQuietly();
+        }
+
+        /**
+         * Makes the statement ready for the next borrower, or closes it if it was evicted meanwhile
+         */
+        private void giveBack() {
+            current = null;
+            inUse = false;
+            if (evicted) {
+                closeQuietly();
+                return;
+            }
+            try {
+                for (ResultSet rs : openResults) {
+                    rs.close();
+                }
+                openResults.clear();
+                physical.clearParameters();
+                physical.clearBatch();
+                if (settingsChanged) {
+                    physical.setMaxRows(0);
+                    physical.setFetchSize(0);
+                    settingsChanged = false;
+                }
+            } catch (SQLException e) {
+                evicted = true;
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("Failed to close cached statement: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Proxy handler for one use of a cached statement, between prepare and close
+     */
+    private static final class StatementHandle implements InvocationHandler {
+        private CachedStatement cached;
+        private final Connection connection;
+
+        private StatementHandle(CachedStatement cached, Connection connection) {
+            this.cached = cached;
+            this.connection = connection;
+        }
+
+        private void detach() {
+            cached = null;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (cached != null) {
+                        CachedStatement returning = cached;
+                        cached = null;
+                        returning.giveBack();
+                    }
+                    return null;
+                case "isClosed":
+                    return cached == null;
+                case "getConnection":
+                    return connection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + (cached == null ? "closed" : cached.physical) + "]";
+                default:
+                    if (cached == null) {
+                        throw new SQLException("Statement has already been closed");
+                    }
+                    String name = method.getName();
+                    if (name.equals("setMaxRows") || name.equals("setFetchSize")) {
+                        cached.settingsChanged = true;
+                    } else if (name.startsWith("execute")) {
+                        // Executing again closes the previous results
+                        cached.openResults.clear();
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(cached.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (result instanceof ResultSet) {
+                        cached.openResults.add((ResultSet) result);
+                    }
+                    return result;
+            }
+        }
+    }
+}
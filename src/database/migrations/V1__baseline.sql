@@ -0,0 +1,65 @@
+-- Tables as originally created by movie_booking.sql, named the way the DAOs query them.
+-- That script named three of them Seats, Bookings and Booking_Seats. Where table names are
+-- case sensitive SchemaMigrator renames those before running this script, after which
+-- IF NOT EXISTS leaves the existing tables and their data as they are.
+
+CREATE TABLE IF NOT EXISTS users (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) UNIQUE NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(10) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS Movie(
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    genre VARCHAR(100) NOT NULL,
+    duration INT,
+    synopsis TEXT
+);
+
+CREATE TABLE IF NOT EXISTS Showtime(
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    movie_id INT,
+    dateTime DATETIME NOT NULL,
+    hall VARCHAR(50),
+    FOREIGN KEY (movie_id) REFERENCES Movie(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS seats(
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    showtime_id INT,
+    seatNumber VARCHAR(10),
+    isBooked BOOLEAN DEFAULT FALSE,
+    FOREIGN KEY (showtime_id) REFERENCES Showtime(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS bookings(
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    user_id INT,
+    movie_id INT,
+    showtime_id INT,
+    isPaid BOOLEAN DEFAULT FALSE,
+    FOREIGN KEY (user_id) REFERENCES users(id),
+    FOREIGN KEY (showtime_id) REFERENCES Showtime(id) ON DELETE CASCADE,
+    FOREIGN KEY (movie_id) REFERENCES Movie(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS Payment(
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    booking_id INT,
+    amount FLOAT NOT NULL,
+    PaymentStatus ENUM('PENDING', 'COMPLETED', 'FAILED') DEFAULT 'PENDING',
+    payment_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    payment_method VARCHAR(50),
+    FOREIGN KEY (booking_id) REFERENCES bookings(id)
+);
+
+CREATE TABLE IF NOT EXISTS booking_seats(
+    booking_id INT,
+    seat_id INT,
+    PRIMARY KEY (booking_id, seat_id),
+    FOREIGN KEY (booking_id) REFERENCES bookings(id) ON DELETE CASCADE,
+    FOREIGN KEY (seat_id) REFERENCES seats(id) ON DELETE CASCADE
+);
@@ -0,0 +1,10 @@
+-- Seat holds for unpaid bookings, released by the reaper once expired
+CREATE TABLE seat_holds(
+    seat_id INT PRIMARY KEY,
+    booking_id INT NOT NULL,
+    expires_at DATETIME NOT NULL,
+    FOREIGN KEY (seat_id) REFERENCES seats(id) ON DELETE CASCADE,
+    FOREIGN KEY (booking_id) REFERENCES bookings(id) ON DELETE CASCADE
+);
+CREATE INDEX idx_seat_holds_expires ON seat_holds(expires_at);
+CREATE INDEX idx_seat_holds_booking ON seat_holds(booking_id);
@@ -0,0 +1,2 @@
+-- Serves the per-movie next showtime and the date range queries
+CREATE INDEX idx_showtime_movie_datetime ON Showtime(movie_id, dateTime);
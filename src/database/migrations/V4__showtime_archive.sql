@@ -0,0 +1,35 @@
+-- Archive of past showtimes with their bookings and payments, filled by the showtime archiver
+CREATE TABLE Showtime_archive(
+    id INT PRIMARY KEY,
+    movie_id INT,
+    dateTime DATETIME NOT NULL,
+    hall VARCHAR(50),
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE Bookings_archive(
+    id INT PRIMARY KEY,
+    user_id INT,
+    movie_id INT,
+    showtime_id INT,
+    isPaid BOOLEAN
+);
+CREATE INDEX idx_bookings_archive_showtime ON Bookings_archive(showtime_id);
+CREATE INDEX idx_bookings_archive_user ON Bookings_archive(user_id);
+
+CREATE TABLE Booking_Seats_archive(
+    booking_id INT,
+    seat_id INT,
+    seatNumber VARCHAR(10),
+    PRIMARY KEY (booking_id, seat_id)
+);
+
+CREATE TABLE Payment_archive(
+    id INT PRIMARY KEY,
+    booking_id INT,
+    amount FLOAT NOT NULL,
+    PaymentStatus VARCHAR(20),
+    payment_date TIMESTAMP NULL,
+    payment_method VARCHAR(50)
+);
+CREATE INDEX idx_payment_archive_booking ON Payment_archive(booking_id);
@@ -0,0 +1,4 @@
+-- Soft-deleted movies and showtimes are hidden from the DAOs until the purger removes them
+ALTER TABLE Movie ADD COLUMN deleted_at DATETIME NULL;
+ALTER TABLE Showtime ADD COLUMN deleted_at DATETIME NULL;
+CREATE INDEX idx_showtime_deleted ON Showtime(deleted_at);
@@ -0,0 +1,15 @@
+-- Indexes and constraints behind the hot DAO queries.
+-- users(email) is already covered by the UNIQUE constraint from the baseline.
+
+-- Seat maps are loaded by showtime, and a seat number may exist only once per showtime
+CREATE UNIQUE INDEX uq_seats_showtime_number ON seats(showtime_id, seatNumber);
+
+-- Reverse lookup from a seat to its booking when releasing or archiving seats
+CREATE INDEX idx_booking_seats_seat ON booking_seats(seat_id);
+
+-- Bookings of a showtime (cascade deletes, archiving) and of a user
+CREATE INDEX idx_bookings_showtime ON bookings(showtime_id);
+CREATE INDEX idx_bookings_user ON bookings(user_id);
+
+-- Payments of a booking (release, cascade deletes, archiving)
+CREATE INDEX idx_payment_booking ON Payment(booking_id);
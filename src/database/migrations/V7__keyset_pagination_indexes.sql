@@ -0,0 +1,5 @@
+-- Admin lists page through movies by title and showtimes by start time (keyset pagination),
+-- so each page is an index range scan however large the tables get.
+-- users are paged by their primary key and need no extra index.
+CREATE INDEX idx_movie_title ON Movie(title);
+CREATE INDEX idx_showtime_datetime ON Showtime(dateTime);
@@ -0,0 +1,2 @@
+-- Admin user search matches name and email prefixes. email is covered by its UNIQUE index.
+CREATE INDEX idx_users_name ON users(name);
@@ -0,0 +1,3 @@
+-- Payments charged for a booking that could then not be confirmed are flagged for refund
+-- instead of being left as completed payments of an unpaid booking
+ALTER TABLE Payment MODIFY PaymentStatus ENUM('PENDING', 'COMPLETED', 'FAILED', 'REFUND_PENDING') DEFAULT 'PENDING';
@@ -0,0 +1,24 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A movie that has at least one upcoming showtime, together with the earliest of them
+ */
+public class NowShowingMovie {
+    private final Movie movie;
+    private final LocalDateTime nextShowtime;
+
+    public NowShowingMovie(Movie movie, LocalDateTime nextShowtime) {
+        this.movie = movie;
+        this.nextShowtime = nextShowtime;
+    }
+
+    public Movie getMovie() {
+        return movie;
+    }
+
+    public LocalDateTime getNextShowtime() {
+        return nextShowtime;
+    }
+}
@@ -1,7 +1,7 @@
 package model;
 
 public enum PaymentStatus {
-    PENDING, COMPLETED, FAILED;
+    PENDING, COMPLETED, FAILED, REFUND_PENDING;
 
     @Override
     public String toString() {
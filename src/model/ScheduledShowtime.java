@@ -0,0 +1,49 @@
+package model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A showtime together with the time its movie ends, as needed for hall scheduling
+ */
+public class ScheduledShowtime {
+    private final int showtimeId;
+    private final int movieId;
+    private final String movieTitle;
+    private final String hall;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    public ScheduledShowtime(int showtimeId, int movieId, String movieTitle, String hall,
+                             LocalDateTime start, LocalDateTime end) {
+        this.showtimeId = showtimeId;
+        this.movieId = movieId;
+        this.movieTitle = movieTitle;
+        this.hall = hall;
+        this.start = start;
+        this.end = end;
+    }
+
+    public int getShowtimeId() {
+        return showtimeId;
+    }
+
+    public int getMovieId() {
+        return movieId;
+    }
+
+    public String getMovieTitle() {
+        return movieTitle;
+    }
+
+    public String getHall() {
+        return hall;
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    public LocalDateTime getEnd() {
+        return end;
+    }
+}
@@ -0,0 +1,50 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Outcome of an all-or-nothing attempt to claim a set of seats for one booking
+ */
+public class SeatClaimResult {
+    private final int bookingId;
+    private final List<Integer> claimedSeatIds;
+    private final List<Integer> lostSeatIds;
+
+    private SeatClaimResult(int bookingId, List<Integer> claimedSeatIds, List<Integer> lostSeatIds) {
+        this.bookingId = bookingId;
+        this.claimedSeatIds = List.copyOf(claimedSeatIds);
+        this.lostSeatIds = List.copyOf(lostSeatIds);
+    }
+
+    public static SeatClaimResult claimed(int bookingId, List<Integer> seatIds) {
+        return new SeatClaimResult(bookingId, seatIds, List.of());
+    }
+
+    public static SeatClaimResult lost(List<Integer> lostSeatIds) {
+        return new SeatClaimResult(-1, List.of(), lostSeatIds);
+    }
+
+    public static SeatClaimResult failed() {
+        return new SeatClaimResult(-1, List.of(), List.of());
+    }
+
+    public boolean isSuccess() {
+        return bookingId > 0;
+    }
+
+    public int getBookingId() {
+        return bookingId;
+    }
+
+    public List<Integer> getClaimedSeatIds() {
+        return claimedSeatIds;
+    }
+
+    /**
+     * Seats that were already taken (or don't belong to the showtime). Empty when the
+     * claim succeeded or failed for a technical reason.
+     */
+    public List<Integer> getLostSeatIds() {
+        return lostSeatIds;
+    }
+}
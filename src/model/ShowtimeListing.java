@@ -0,0 +1,37 @@
+package model;
+
+/**
+ * A showtime as shown in the admin list: the showtime with its movie title and seat sales
+ */
+public class ShowtimeListing {
+    private final Showtime showtime;
+    private final String movieTitle;
+    private final int seatsSold;
+    private final int seatCount;
+
+    public ShowtimeListing(Showtime showtime, String movieTitle, int seatsSold, int seatCount) {
+        this.showtime = showtime;
+        this.movieTitle = movieTitle;
+        this.seatsSold = seatsSold;
+        this.seatCount = seatCount;
+    }
+
+    public Showtime getShowtime() {
+        return showtime;
+    }
+
+    public String getMovieTitle() {
+        return movieTitle;
+    }
+
+    /**
+     * @return seats of paid bookings; seats held for a pending payment are not included
+     */
+    public int getSeatsSold() {
+        return seatsSold;
+    }
+
+    public int getSeatCount() {
+        return seatCount;
+    }
+}
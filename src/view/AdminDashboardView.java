@@ -1,5 +1,6 @@
 package view;
 
+import config.AppConfig;
 import controller.AdminController;
 import dao.UserDAO;
 import javafx.application.Application;
@@ -16,24 +17,39 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 import javafx.animation.FadeTransition;
+import javafx.animation.PauseTransition;
 import javafx.util.Duration;
 import javafx.util.StringConverter;
 import model.Movie;
-import model.Showtime;
+import model.ShowtimeListing;
 import model.User;
 
-import java.sql.SQLException;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 public class AdminDashboardView extends Application {
+    // Rows loaded per page in the admin lists; more are loaded while scrolling
+    private static final int PAGE_SIZE = AppConfig.getInt("admin.pageSize", 100);
+    private static final int USER_SEARCH_LIMIT = AppConfig.getInt("admin.userSearchLimit", 100);
+    private static final Duration SEARCH_DEBOUNCE = Duration.millis(250);
+
     private AdminController adminController;
+    private final UserDAO userDAO = new UserDAO();
     private ListView<Movie> movieListView;
-    private ListView<Showtime> showtimeListView;
+    private ListView<ShowtimeListing> showtimeListView;
     private Label statusLabel;
     private ComboBox<Movie> movieCombo;
     private ListView<User> userListView;
+    private PagedListLoader<User> userPages;
+    private final BackgroundTasks.TaskSlot<List<User>> userSearch = new BackgroundTasks.TaskSlot<>();
+    private final BackgroundTasks.TaskSlot<List<Movie>> movieComboLoad = new BackgroundTasks.TaskSlot<>();
+    private final BackgroundTasks.TaskSlot<Boolean> userDelete = new BackgroundTasks.TaskSlot<>();
+    private final BackgroundTasks.TaskSlot<Boolean> movieAdd = new BackgroundTasks.TaskSlot<>();
+    private final BackgroundTasks.TaskSlot<Boolean> movieDelete = new BackgroundTasks.TaskSlot<>();
+    private final BackgroundTasks.TaskSlot<String> showtimeAdd = new BackgroundTasks.TaskSlot<>();
+    private final BackgroundTasks.TaskSlot<Boolean> showtimeDelete = new BackgroundTasks.TaskSlot<>();
+    private PagedListLoader<Movie> moviePages;
+    private PagedListLoader<ShowtimeListing> showtimePages;
 
     @Override
     public void start(Stage primaryStage) {
@@ -162,7 +178,7 @@ public class AdminDashboardView extends Application {
 
         // Add refresh button next to the title
         Button refreshButton = createStyledButton("Refresh", "#2196F3", 30);
-        refreshButton.setOnAction(e -> refreshUserList(userCountLabel));
+        refreshButton.setOnAction(e -> refreshUserList());
 
         HBox titleBox = new HBox(10, listTitle, refreshButton, userCountLabel);
         titleBox.setAlignment(Pos.CENTER_LEFT);
@@ -171,17 +187,25 @@ public class AdminDashboardView extends Application {
         userListView = new ListView<>();
         userListView.setStyle("-fx-background-radius: 10; -fx-border-radius: 10; -fx-border-color: #e0e0e0;");
         styleUserListView();
-        refreshUserList(userCountLabel); // Initial load
+        userPages = new PagedListLoader<>(userListView, PAGE_SIZE, userDAO::getUsersAfter);
+        userPages.setOnPageLoaded(() -> userCountLabel.setText(
+                "Showing: " + userListView.getItems().size() + (userPages.hasMore() ? "+" : "") + " users"));
+        refreshButton.disableProperty().bind(userPages.loadingProperty());
+        refreshUserList(); // Initial load
         VBox.setVgrow(userListView, Priority.ALWAYS);
 
         // Search functionality
         TextField searchField = createStyledTextField("Search by name or email");
+        // Search once typing pauses rather than on every keystroke
+        PauseTransition searchDebounce = new PauseTransition(SEARCH_DEBOUNCE);
+        searchDebounce.setOnFinished(e -> filterUserList(searchField.getText()));
         searchField.textProperty().addListener((observable, oldValue, newValue) -> {
-            filterUserList(newValue);
+            searchDebounce.playFromStart();
         });
 
         // Buttons with styling
         Button deleteButton = createStyledButton("Delete Selected User", "#d32f2f", 40);
+        deleteButton.disableProperty().bind(userDelete.runningProperty());
         deleteButton.setOnAction(e -> {
             User selected = userListView.getSelectionModel().getSelectedItem();
             if (selected != null) {
@@ -192,18 +216,14 @@ public class AdminDashboardView extends Application {
 
                 confirmDialog.showAndWait().ifPresent(response -> {
                     if (response == ButtonType.OK) {
-                        try {
-                            UserDAO userDAO = new UserDAO();
-                            if (userDAO.deleteUser(selected.getID())) {
-                                refreshUserList(userCountLabel);
+                        userDelete.run(() -> userDAO.deleteUser(selected.getID()), deleted -> {
+                            if (deleted) {
+                                refreshUserList();
                                 showStatusMessage("User deleted successfully", true);
                             } else {
                                 showStatusMessage("Failed to delete user", false);
                             }
-                            userDAO.close();
-                        } catch (SQLException ex) {
-                            showStatusMessage("Database error: " + ex.getMessage(), false);
-                        }
+                        }, this::showActionFailure);
                     }
                 });
             } else {
@@ -239,6 +259,8 @@ public class AdminDashboardView extends Application {
         movieListView = new ListView<>();
         movieListView.setStyle("-fx-background-radius: 10; -fx-border-radius: 10; -fx-border-color: #e0e0e0;");
         styleMovieListView();
+        moviePages = new PagedListLoader<>(movieListView, PAGE_SIZE, adminController::getMoviesAfter);
+        refreshButton.disableProperty().bind(moviePages.loadingProperty());
         refreshMovieList();
         VBox.setVgrow(movieListView, Priority.ALWAYS);
 
@@ -289,6 +311,8 @@ public class AdminDashboardView extends Application {
         Button addButton = createStyledButton("Add Movie", "#6200ea", 40);
         Button clearButton = createStyledButton("Clear Form", "#9e9e9e", 40);
         Button deleteButton = createStyledButton("Delete Selected", "#d32f2f", 40);
+        addButton.disableProperty().bind(movieAdd.runningProperty());
+        deleteButton.disableProperty().bind(movieDelete.runningProperty());
 
         HBox buttonBox = new HBox(15, addButton, clearButton, deleteButton);
         buttonBox.setAlignment(Pos.CENTER_RIGHT);
@@ -308,14 +332,16 @@ public class AdminDashboardView extends Application {
 
                 int duration = Integer.parseInt(durationText);
 
-                if (adminController.addMovie(title, genre, duration, synopsis)) {
-                    refreshMovieList();
-                    refreshMovieCombo(); // Refresh the combo box in showtime tab
-                    clearFields(titleField, genreField, durationField, synopsisArea);
-                    showStatusMessage("Movie added successfully", true);
-                } else {
-                    showStatusMessage("Failed to add movie", false);
-                }
+                movieAdd.run(() -> adminController.addMovie(title, genre, duration, synopsis), added -> {
+                    if (added) {
+                        refreshMovieList();
+                        refreshMovieCombo(); // Refresh the combo box in showtime tab
+                        clearFields(titleField, genreField, durationField, synopsisArea);
+                        showStatusMessage("Movie added successfully", true);
+                    } else {
+                        showStatusMessage("Failed to add movie", false);
+                    }
+                }, this::showActionFailure);
             } catch (NumberFormatException ex) {
                 showStatusMessage("Duration must be a valid number", false);
             }
@@ -336,13 +362,16 @@ public class AdminDashboardView extends Application {
 
                 confirmDialog.showAndWait().ifPresent(response -> {
                     if (response == ButtonType.OK) {
-                        if (adminController.deleteMovie(selected.getID())) {
-                            refreshMovieList();
-                            refreshMovieCombo(); // Refresh the combo box in showtime tab
-                            showStatusMessage("Movie deleted successfully", true);
-                        } else {
-                            showStatusMessage("Failed to delete movie", false);
-                        }
+                        movieDelete.run(() -> adminController.deleteMovie(selected.getID()), deleted -> {
+                            if (deleted) {
+                                refreshMovieList();
+                                refreshMovieCombo(); // Refresh the combo box in showtime tab
+                                refreshShowtimeList();
+                                showStatusMessage("Movie deleted successfully", true);
+                            } else {
+                                showStatusMessage("Failed to delete movie", false);
+                            }
+                        }, this::showActionFailure);
                     }
                 });
             } else {
@@ -401,37 +430,20 @@ public class AdminDashboardView extends Application {
         });
     }
 
-    private void refreshUserList(Label countLabel) {
-        try {
-            UserDAO userDAO = new UserDAO();
-            List<User> users = userDAO.getAllUsers();
-            userDAO.close();
-
-            userListView.getItems().setAll(users);
-            countLabel.setText("Total: " + users.size() + " users");
-        } catch (SQLException e) {
-            showStatusMessage("Error loading users: " + e.getMessage(), false);
-        }
+    private void refreshUserList() {
+        userSearch.cancel();
+        userPages.reload();
     }
 
     private void filterUserList(String searchText) {
-        try {
-            UserDAO userDAO = new UserDAO();
-            List<User> allUsers = userDAO.getAllUsers();
-            userDAO.close();
-
-            if (searchText == null || searchText.isEmpty()) {
-                userListView.getItems().setAll(allUsers);
-            } else {
-                String searchLower = searchText.toLowerCase();
-                List<User> filtered = allUsers.stream()
-                        .filter(user -> user.getName().toLowerCase().contains(searchLower) ||
-                                user.getEmail().toLowerCase().contains(searchLower))
-                        .toList();
-                userListView.getItems().setAll(filtered);
-            }
-        } catch (SQLException e) {
-            showStatusMessage("Error filtering users: " + e.getMessage(), false);
+        String prefix = searchText == null ? "" : searchText.trim();
+        if (prefix.isEmpty()) {
+            userSearch.cancel();
+            userPages.reload();
+        } else {
+            // A newer search term supersedes the one still running
+            userSearch.replace(() -> userDAO.searchUsers(prefix, USER_SEARCH_LIMIT),
+                    userPages::showItems, BackgroundTasks::logFailure);
         }
     }
 
@@ -454,6 +466,8 @@ public class AdminDashboardView extends Application {
         showtimeListView = new ListView<>();
         showtimeListView.setStyle("-fx-background-radius: 10; -fx-border-radius: 10; -fx-border-color: #e0e0e0;");
         styleShowtimeListView();
+        showtimePages = new PagedListLoader<>(showtimeListView, PAGE_SIZE, adminController::getShowtimeListingsAfter);
+        refreshButton.disableProperty().bind(showtimePages.loadingProperty());
         refreshShowtimeList();
         VBox.setVgrow(showtimeListView, Priority.ALWAYS);
 
@@ -526,6 +540,8 @@ public class AdminDashboardView extends Application {
         Button addButton = createStyledButton("Add Showtime", "#6200ea", 40);
         Button clearButton = createStyledButton("Clear Form", "#9e9e9e", 40);
         Button deleteButton = createStyledButton("Delete Selected", "#d32f2f", 40);
+        addButton.disableProperty().bind(showtimeAdd.runningProperty());
+        deleteButton.disableProperty().bind(showtimeDelete.runningProperty());
 
         HBox buttonBox = new HBox(15, addButton, clearButton, deleteButton);
         buttonBox.setAlignment(Pos.CENTER_RIGHT);
@@ -554,25 +570,23 @@ public class AdminDashboardView extends Application {
                 return;
             }
 
-            // Check for overlapping showtimes
-            String validationResult = adminController.validateShowtime(selectedMovie.getID(), date.toString(), time, hall);
-            if (validationResult != null) {
-                showStatusMessage(validationResult, false);
-                return;
-            }
-
-            if (adminController.addShowtime(
-                    selectedMovie.getID(),
-                    date.toString(),
-                    time,
-                    hall
-            )) {
-                refreshShowtimeList();
-                clearFields(timeField, hallField);
-                showStatusMessage("Showtime added successfully", true);
-            } else {
-                showStatusMessage("Failed to add showtime", false);
-            }
+            // Check for overlapping showtimes, then add; the result is null on success or the error to show
+            showtimeAdd.run(() -> {
+                String validationResult = adminController.validateShowtime(selectedMovie.getID(), date.toString(), time, hall);
+                if (validationResult != null) {
+                    return validationResult;
+                }
+                return adminController.addShowtime(selectedMovie.getID(), date.toString(), time, hall)
+                        ? null : "Failed to add showtime";
+            }, problem -> {
+                if (problem == null) {
+                    refreshShowtimeList();
+                    clearFields(timeField, hallField);
+                    showStatusMessage("Showtime added successfully", true);
+                } else {
+                    showStatusMessage(problem, false);
+                }
+            }, this::showActionFailure);
         });
 
         clearButton.setOnAction(e -> {
@@ -584,7 +598,7 @@ public class AdminDashboardView extends Application {
         });
 
         deleteButton.setOnAction(e -> {
-            Showtime selected = showtimeListView.getSelectionModel().getSelectedItem();
+            ShowtimeListing selected = showtimeListView.getSelectionModel().getSelectedItem();
             if (selected != null) {
                 Alert confirmDialog = createConfirmDialog(
                         "Confirm Delete",
@@ -593,12 +607,14 @@ public class AdminDashboardView extends Application {
 
                 confirmDialog.showAndWait().ifPresent(response -> {
                     if (response == ButtonType.OK) {
-                        if (adminController.deleteShowtime(selected.getId())) {
-                            refreshShowtimeList();
-                            showStatusMessage("Showtime deleted successfully", true);
-                        } else {
-                            showStatusMessage("Failed to delete showtime", false);
-                        }
+                        showtimeDelete.run(() -> adminController.deleteShowtime(selected.getShowtime().getId()), deleted -> {
+                            if (deleted) {
+                                refreshShowtimeList();
+                                showStatusMessage("Showtime deleted successfully", true);
+                            } else {
+                                showStatusMessage("Failed to delete showtime", false);
+                            }
+                        }, this::showActionFailure);
                     }
                 });
             } else {
@@ -617,8 +633,15 @@ public class AdminDashboardView extends Application {
 
     // ================ Helper Methods ================
 
+    private void showActionFailure(Throwable error) {
+        BackgroundTasks.logFailure(error);
+        showStatusMessage("Something went wrong, please try again", false);
+    }
+
     private void refreshMovieCombo() {
-        movieCombo.setItems(FXCollections.observableArrayList(adminController.getAllMovies()));
+        // Called again after every movie change, so the latest call wins
+        movieComboLoad.replace(adminController::getMovieTitles,
+                titles -> movieCombo.setItems(FXCollections.observableArrayList(titles)), BackgroundTasks::logFailure);
     }
 
     private void styleMovieListView() {
@@ -661,55 +684,7 @@ public class AdminDashboardView extends Application {
     }
 
     private void styleShowtimeListView() {
-        showtimeListView.setCellFactory(param -> new ListCell<Showtime>() {
-            @Override
-            protected void updateItem(Showtime showtime, boolean empty) {
-                super.updateItem(showtime, empty);
-
-                if (empty || showtime == null) {
-                    setText(null);
-                    setGraphic(null);
-                    setStyle("");
-                } else {
-                    // Create a custom cell with better formatting
-                    VBox cellContent = new VBox(5);
-                    cellContent.setPadding(new Insets(8, 5, 8, 5));
-
-                    // Get movie title for this showtime
-                    String movieTitle = "Unknown Movie";
-                    for (Movie movie : adminController.getAllMovies()) {
-                        if (movie.getID() == showtime.getMovieId()) {
-                            movieTitle = movie.getTitle();
-                            break;
-                        }
-                    }
-
-                    Label movieLabel = new Label(movieTitle);
-                    movieLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
-                    movieLabel.setTextFill(Color.valueOf("#303f9f"));
-
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEE, MMM d, yyyy h:mm a");
-                    Label datetimeLabel = new Label(showtime.getDateTime().format(formatter));
-                    datetimeLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 12));
-
-                    Label hallLabel = new Label("Hall: " + showtime.getHall());
-                    hallLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 12));
-                    hallLabel.setTextFill(Color.valueOf("#757575"));
-
-                    cellContent.getChildren().addAll(movieLabel, datetimeLabel, hallLabel);
-
-                    setGraphic(cellContent);
-                    setPrefHeight(USE_COMPUTED_SIZE);
-
-                    // Alternate row colors
-                    if (getIndex() % 2 == 0) {
-                        setStyle("-fx-background-color: #f9f9f9;");
-                    } else {
-                        setStyle("-fx-background-color: white;");
-                    }
-                }
-            }
-        });
+        showtimeListView.setCellFactory(param -> new ShowtimeListingCell());
     }
 
     private TextField createStyledTextField(String promptText) {
@@ -811,11 +786,11 @@ public class AdminDashboardView extends Application {
     }
 
     private void refreshMovieList() {
-        movieListView.getItems().setAll(adminController.getAllMovies());
+        moviePages.reload();
     }
 
     private void refreshShowtimeList() {
-        showtimeListView.getItems().setAll(adminController.getAllShowtimes());
+        showtimePages.reload();
     }
 
     private void clearFields(TextField... fields) {
@@ -0,0 +1,153 @@
+package view;
+
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.concurrent.Task;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs controller and DAO calls off the JavaFX Application Thread, so a slow or stuck query
+ * doesn't freeze the window.
+ *
+ * The work runs on a shared executor; the success and failure callbacks run on the FX thread
+ * and may update the scene graph. Views that start the same query repeatedly (buttons, list
+ * paging, search) use a {@link TaskSlot}, which keeps at most one such query in flight.
+ */
+final class BackgroundTasks {
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService executor = createExecutor();
+
+    private BackgroundTasks() {
+    }
+
+    /**
+     * Runs the work in the background and hands the result to onSuccess on the FX thread
+     */
+    static <T> Task<T> submit(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = newTask(work);
+        task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
+        task.setOnFailed(e -> onFailure.accept(task.getException()));
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Stops the executor when the application exits; running tasks are interrupted
+     */
+    static void shutdown() {
+        executor.shutdownNow();
+    }
+
+    static void logFailure(Throwable error) {
+        System.err.println("Background task failed: " + error.getMessage());
+    }
+
+    private static <T> Task<T> newTask(Callable<T> work) {
+        return new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+    }
+
+    /**
+     * Virtual threads where the runtime has them (Java 21+), otherwise a cached pool of daemon
+     * threads. Either way the connection pool bounds how many queries really run at once.
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "ui-background-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * One background action of a view, with at most one task in flight. Must only be used
+     * from the FX thread.
+     */
+    static final class TaskSlot<T> {
+        private final ReadOnlyBooleanWrapper running = new ReadOnlyBooleanWrapper(false);
+        private Task<T> current;
+
+        /**
+         * True while a task is in flight; bind a spinner or a button's disable property to it
+         */
+        ReadOnlyBooleanProperty runningProperty() {
+            return running.getReadOnlyProperty();
+        }
+
+        boolean isRunning() {
+            return current != null;
+        }
+
+        /**
+         * Starts the work unless a task is already in flight, in which case the request is
+         * dropped and the running task's callbacks stay in charge, e.g. on a double-click
+         */
+        void run(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+            if (current == null) {
+                start(work, onSuccess, onFailure);
+            }
+        }
+
+        /**
+         * Cancels the task in flight, if any, and starts the work; for requests that supersede
+         * the previous one, e.g. a new search term
+         */
+        void replace(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+            cancel();
+            start(work, onSuccess, onFailure);
+        }
+
+        /**
+         * Cancels the task in flight; its callbacks will not run. A query already sent to the
+         * database still finishes there, but its result is dropped.
+         */
+        void cancel() {
+            if (current != null) {
+                current.cancel();
+                finish(current);
+            }
+        }
+
+        private void start(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+            Task<T> task = newTask(work);
+            task.setOnSucceeded(e -> {
+                if (finish(task)) {
+                    onSuccess.accept(task.getValue());
+                }
+            });
+            task.setOnFailed(e -> {
+                if (finish(task)) {
+                    onFailure.accept(task.getException());
+                }
+            });
+            current = task;
+            running.set(true);
+            executor.execute(task);
+        }
+
+        /**
+         * @return false if the task was cancelled or replaced meanwhile
+         */
+        private boolean finish(Task<T> task) {
+            if (current != task) {
+                return false;
+            }
+            current = null;
+            running.set(false);
+            return true;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package view;
 
 import controller.AuthController;
+import dao.SeatHoldReaper;
+import dao.ShowtimeArchiver;
+import dao.SoftDeletePurger;
+import database.DatabaseConnection;
 import javafx.application.Application;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -22,6 +26,8 @@ import model.UserRole;
 
 public class LoginView extends Application {
     private final AuthController authController = new AuthController();
+    private final BackgroundTasks.TaskSlot<User> login = new BackgroundTasks.TaskSlot<>();
+    private final BackgroundTasks.TaskSlot<Boolean> registration = new BackgroundTasks.TaskSlot<>();
     private Label statusLabel;
 
     @Override
@@ -319,6 +325,7 @@ public class LoginView extends Application {
 
             // Button actions
             loginBtn.setOnAction(e -> handleLogin(emailField.getText(), pwField.getText(), primaryStage));
+            loginBtn.disableProperty().bind(login.runningProperty());
             registerLink.setOnAction(e -> showRegisterDialog());
             forgotPassword.setOnAction(e -> showForgotPasswordDialog());
 
@@ -395,7 +402,13 @@ public class LoginView extends Application {
             return;
         }
 
-        User authenticatedUser = authController.login(email, password);
+        showStatusMessage("Signing in...", true);
+        login.run(() -> authController.login(email, password),
+                authenticatedUser -> handleLoginResult(authenticatedUser, primaryStage),
+                error -> showStatusMessage("Sign in failed, please try again", false));
+    }
+
+    private void handleLoginResult(User authenticatedUser, Stage primaryStage) {
         if (authenticatedUser != null) {
             showStatusMessage("Login successful!", true);
 
@@ -664,13 +677,16 @@ public class LoginView extends Application {
             return null;
         });
 
-        dialog.showAndWait().ifPresent(newUser -> {
-            if (authController.register(newUser.getName(), newUser.getEmail(), newUser.getPassword())) {
-                showStatusMessage("Registration successful! Please login.", true);
-            } else {
-                showStatusMessage("Registration failed. Email may already exist.", false);
-            }
-        });
+        dialog.showAndWait().ifPresent(newUser -> registration.run(
+                () -> authController.register(newUser.getName(), newUser.getEmail(), newUser.getPassword()),
+                registered -> {
+                    if (registered) {
+                        showStatusMessage("Registration successful! Please login.", true);
+                    } else {
+                        showStatusMessage("Registration failed. Email may already exist.", false);
+                    }
+                },
+                error -> showStatusMessage("Registration failed, please try again", false)));
     }
 
     // Helper method to validate password matching
@@ -707,6 +723,16 @@ public class LoginView extends Application {
         registerButton.setDisable(!(allFieldsFilled && passwordsMatch && validEmail && termsAccepted));
     }
 
+    @Override
+    public void stop() {
+        // Stop background jobs and release pooled database connections when the application exits
+        SeatHoldReaper.stop();
+        ShowtimeArchiver.stop();
+        SoftDeletePurger.stop();
+        BackgroundTasks.shutdown();
+        DatabaseConnection.shutdown();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
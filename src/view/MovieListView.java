@@ -1,8 +1,6 @@
 package view;
 
 import controller.MovieController;
-import controller.ShowtimeController;
-import dao.CascadeDeleteHelper;
 import javafx.application.Application;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -21,17 +19,19 @@ import javafx.animation.FadeTransition;
 import javafx.animation.TranslateTransition;
 import javafx.scene.Cursor;
 import model.Movie;
-import model.Showtime;
+import model.NowShowingMovie;
 import model.User;
 
-import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class MovieListView extends Application {
 
     private MovieController movieController = new MovieController();
-    private ShowtimeController showtimeController = new ShowtimeController();
+    private final BackgroundTasks.TaskSlot<List<NowShowingMovie>> nowShowingLoad = new BackgroundTasks.TaskSlot<>();
+    private final BackgroundTasks.TaskSlot<List<NowShowingMovie>> movieSearch = new BackgroundTasks.TaskSlot<>();
+    private final BackgroundTasks.TaskSlot<Movie> movieDetailsLoad = new BackgroundTasks.TaskSlot<>();
+    private final BackgroundTasks.TaskSlot<Movie> showtimesOpen = new BackgroundTasks.TaskSlot<>();
     private ObservableList<String> movieTitles = FXCollections.observableArrayList();
     private TextField titleField, genreField, durationField;
     private TextArea synopsisArea;
@@ -45,9 +45,6 @@ public class MovieListView extends Application {
     @Override
     public void start(Stage primaryStage) {
         try {
-            // Clean up past showtimes before showing the UI
-            cleanupPastShowtimes();
-
             // Main container with improved gradient background
             primaryStage.setMaximized(true);
             StackPane rootContainer = new StackPane();
@@ -190,15 +187,18 @@ public class MovieListView extends Application {
             showShowtimesButton.setOnAction(e -> {
                 String selectedTitle = movieListView.getSelectionModel().getSelectedItem();
                 if (selectedTitle != null) {
-                    Movie selectedMovie = movieController.getMovieByTitle(selectedTitle);
-                    if (selectedMovie != null) {
-                        openShowtimeSelectionView(primaryStage, selectedMovie);
-                    }
+                    showtimesOpen.run(() -> movieController.getMovieByTitle(selectedTitle), selectedMovie -> {
+                        if (selectedMovie != null) {
+                            openShowtimeSelectionView(primaryStage, selectedMovie);
+                        }
+                    }, error -> showStatusMessage("Could not load the movie, please try again", false));
                 } else {
                     showStatusMessage("Please select a movie first", false);
                 }
             });
 
+            showShowtimesButton.disableProperty().bind(showtimesOpen.runningProperty());
+
             rightPanel.getChildren().addAll(detailsHeader, detailsPanel, statusLabel, showShowtimesButton);
 
             // Add panels to split pane
@@ -237,27 +237,15 @@ public class MovieListView extends Application {
         }
     }
 
-    private void cleanupPastShowtimes() {
-        LocalDate today = LocalDate.now();
-        List<Showtime> allShowtimes = showtimeController.getAllShowtimes();
-
-        for (Showtime showtime : allShowtimes) {
-            if (showtime.getDateTime().toLocalDate().isBefore(today)) {
-                CascadeDeleteHelper.safeDeleteShowtime(showtime.getId());
-            }
-        }
-    }
-
     public void refreshMovieList(ListView<String> movieListView) {
-        // Get only movies that have showtimes
-        List<Movie> moviesWithShowtimes = movieController.getAllMovies().stream()
-                .filter(movie -> !showtimeController.getShowtimesByMovie(movie.getID()).isEmpty())
-                .collect(Collectors.toList());
-
-        movieTitles.setAll(moviesWithShowtimes.stream()
-                .map(Movie::getTitle)
-                .collect(Collectors.toList()));
-        movieListView.setItems(movieTitles);
+        movieSearch.cancel();
+        // Get only movies that have upcoming showtimes, in a single query
+        nowShowingLoad.run(movieController::getNowShowingMovies, moviesWithShowtimes -> {
+            movieTitles.setAll(moviesWithShowtimes.stream()
+                    .map(nowShowing -> nowShowing.getMovie().getTitle())
+                    .collect(Collectors.toList()));
+            movieListView.setItems(movieTitles);
+        }, error -> showStatusMessage("Could not load movies, please try again", false));
     }
 
     private void openShowtimeSelectionView(Stage primaryStage, Movie movie) {
@@ -380,14 +368,16 @@ public class MovieListView extends Application {
         // Update details when movie is selected
         movieListView.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal != null) {
-                Movie selectedMovie = movieController.getMovieByTitle(newVal);
-                if (selectedMovie != null) {
-                    titleField.setText(selectedMovie.getTitle());
-                    genreField.setText(selectedMovie.getGenre());
-                    durationField.setText(String.valueOf(selectedMovie.getDuration()));
-                    synopsisArea.setText(selectedMovie.getSynopsis());
-                    highlightPanel(detailsPanel);
-                }
+                // Only the most recent selection is shown when moving quickly through the list
+                movieDetailsLoad.replace(() -> movieController.getMovieByTitle(newVal), selectedMovie -> {
+                    if (selectedMovie != null) {
+                        titleField.setText(selectedMovie.getTitle());
+                        genreField.setText(selectedMovie.getGenre());
+                        durationField.setText(String.valueOf(selectedMovie.getDuration()));
+                        synopsisArea.setText(selectedMovie.getSynopsis());
+                        highlightPanel(detailsPanel);
+                    }
+                }, BackgroundTasks::logFailure);
             }
         });
 
@@ -424,22 +414,21 @@ public class MovieListView extends Application {
         searchButton.setOnAction(e -> {
             String searchTerm = searchField.getText().trim();
             if (!searchTerm.isEmpty()) {
-                List<Movie> foundMovies = movieController.getAllMovies().stream()
-                        .filter(movie -> movie.getTitle().toLowerCase().contains(searchTerm.toLowerCase()))
-                        .filter(movie -> !showtimeController.getShowtimesByMovie(movie.getID()).isEmpty())
-                        .collect(Collectors.toList());
-
-                if (foundMovies.isEmpty()) {
-                    movieTitles.clear();
-                    movieListView.setItems(movieTitles);
-                    showStatusMessage("No movies found matching \"" + searchTerm + "\"", false);
-                } else {
-                    movieTitles.setAll(foundMovies.stream()
-                            .map(Movie::getTitle)
-                            .collect(Collectors.toList()));
-                    movieListView.setItems(movieTitles);
-                    showStatusMessage("Found " + foundMovies.size() + " movie(s)", true);
-                }
+                nowShowingLoad.cancel();
+                // A new search term supersedes the one still running
+                movieSearch.replace(() -> movieController.searchNowShowingMovies(searchTerm), foundMovies -> {
+                    if (foundMovies.isEmpty()) {
+                        movieTitles.clear();
+                        movieListView.setItems(movieTitles);
+                        showStatusMessage("No movies found matching \"" + searchTerm + "\"", false);
+                    } else {
+                        movieTitles.setAll(foundMovies.stream()
+                                .map(nowShowing -> nowShowing.getMovie().getTitle())
+                                .collect(Collectors.toList()));
+                        movieListView.setItems(movieTitles);
+                        showStatusMessage("Found " + foundMovies.size() + " movie(s)", true);
+                    }
+                }, error -> showStatusMessage("Search failed, please try again", false));
             } else {
                 refreshMovieList(movieListView);
             }
@@ -0,0 +1,137 @@
+package view;
+
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ScrollBar;
+
+import java.util.List;
+
+/**
+ * Fills a ListView one page at a time from a keyset-paginated source.
+ *
+ * The first page is loaded by {@link #reload()}; further pages are appended when the user
+ * scrolls or moves the selection near the end of the list. Each page is requested with the
+ * last item already shown as cursor, so the cost of a page doesn't depend on how far down
+ * the list it is. Pages are loaded in the background, one at a time.
+ */
+final class PagedListLoader<T> {
+    private static final double LOAD_AT_SCROLL_FRACTION = 0.9;
+
+    /**
+     * Loads the items following the given one
+     */
+    interface PageSource<T> {
+        /**
+         * @param last last item of the previous page, or null for the first page
+         */
+        List<T> load(T last, int limit);
+    }
+
+    private final ListView<T> listView;
+    private final int pageSize;
+    private final PageSource<T> source;
+    private final BackgroundTasks.TaskSlot<List<T>> pageLoad = new BackgroundTasks.TaskSlot<>();
+    private Runnable onPageLoaded = () -> { };
+    private boolean hasMore;
+    private ScrollBar scrollBar;
+
+    PagedListLoader(ListView<T> listView, int pageSize, PageSource<T> source) {
+        this.listView = listView;
+        this.pageSize = pageSize;
+        this.source = source;
+
+        // An empty list says it is loading rather than that there is nothing to show
+        Node emptyPlaceholder = listView.getPlaceholder();
+        Label loadingPlaceholder = new Label("Loading...");
+        pageLoad.runningProperty().addListener((obs, wasRunning, running) ->
+                listView.setPlaceholder(running ? loadingPlaceholder : emptyPlaceholder));
+
+        listView.skinProperty().addListener((obs, oldSkin, newSkin) -> attachScrollBar());
+        listView.getSelectionModel().selectedIndexProperty().addListener((obs, oldIndex, newIndex) -> {
+            if (newIndex.intValue() >= listView.getItems().size() - 1) {
+                loadNextPage();
+            }
+        });
+    }
+
+    /**
+     * Sets a callback run after every page, e.g. to update a count label
+     */
+    void setOnPageLoaded(Runnable onPageLoaded) {
+        this.onPageLoaded = onPageLoaded;
+    }
+
+    /**
+     * True while a page is being loaded
+     */
+    ReadOnlyBooleanProperty loadingProperty() {
+        return pageLoad.runningProperty();
+    }
+
+    /**
+     * Clears the list and loads the first page again. Does nothing while the first page is
+     * still loading, so a double-clicked refresh runs one query.
+     */
+    void reload() {
+        if (pageLoad.isRunning() && listView.getItems().isEmpty() && hasMore) {
+            return;
+        }
+        pageLoad.cancel();
+        listView.getItems().clear();
+        hasMore = true;
+        loadNextPage();
+    }
+
+    /**
+     * Replaces the list with items from elsewhere, e.g. search results, and stops paging
+     * until the next {@link #reload()}
+     */
+    void showItems(List<T> items) {
+        pageLoad.cancel();
+        hasMore = false;
+        listView.getItems().setAll(items);
+        onPageLoaded.run();
+    }
+
+    boolean hasMore() {
+        return hasMore;
+    }
+
+    /**
+     * Scrolling fires this many times in a row; while a page is loading the calls are ignored
+     */
+    private void loadNextPage() {
+        if (!hasMore || pageLoad.isRunning()) {
+            return;
+        }
+        List<T> items = listView.getItems();
+        T last = items.isEmpty() ? null : items.get(items.size() - 1);
+        pageLoad.run(() -> source.load(last, pageSize), page -> {
+            hasMore = page.size() == pageSize;
+            listView.getItems().addAll(page);
+            onPageLoaded.run();
+        }, error -> {
+            hasMore = false;
+            BackgroundTasks.logFailure(error);
+        });
+    }
+
+    /**
+     * The vertical scroll bar only exists once the ListView has a skin
+     */
+    private void attachScrollBar() {
+        for (Node node : listView.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL && node != scrollBar) {
+                scrollBar = (ScrollBar) node;
+                scrollBar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                    if (newValue.doubleValue() >= scrollBar.getMax() * LOAD_AT_SCROLL_FRACTION) {
+                        loadNextPage();
+                    }
+                });
+            }
+        }
+    }
+}
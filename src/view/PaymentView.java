@@ -1,11 +1,14 @@
 package view;
 
+import config.AppConfig;
 import controller.PaymentController;
 import controller.AuthController;
+import controller.SeatController;
 import dao.BookingDAO;
 import dao.SeatDAO;
 import dao.ShowtimeDAO;
 import dao.MovieDAO;
+import dao.SeatHoldDAO;
 import javafx.application.Application;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -18,7 +21,10 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 import javafx.util.Duration;
+import javafx.animation.Animation;
 import javafx.animation.FadeTransition;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import model.Booking;
 import model.Payment;
 import model.Seat;
@@ -41,10 +47,42 @@ public class PaymentView extends Application {
     private DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
     private Integer seatId;
     private Integer bookingId;
+    private final int showtimeId;
+    private final SeatController seatController = new SeatController();
+
+    // Keep the seat hold alive while this window is open
+    private static final int HOLD_EXTEND_INTERVAL_SECONDS = AppConfig.getInt("holds.extendIntervalSeconds", 30);
+    private final SeatHoldDAO seatHoldDAO = new SeatHoldDAO();
+    private Timeline holdKeepAlive;
+
+    // Background work
+    private final BackgroundTasks.TaskSlot<Boolean> holdExtend = new BackgroundTasks.TaskSlot<>();
+    private final BackgroundTasks.TaskSlot<PaymentOutcome> payment = new BackgroundTasks.TaskSlot<>();
+    private final BackgroundTasks.TaskSlot<TicketDetails> ticketLoad = new BackgroundTasks.TaskSlot<>();
+
+    /**
+     * How a payment attempt ended
+     */
+    private enum PaymentOutcome {
+        BOOKING_NOT_FOUND, ALREADY_PAID, HOLD_EXPIRED, PAID, HOLD_EXPIRED_DURING_PAYMENT, FAILED
+    }
+
+    /**
+     * What the ticket dialog shows, loaded in the background; missing names the first part
+     * that could not be found, or is null if everything was
+     */
+    private static final class TicketDetails {
+        private Booking booking;
+        private Seat seat;
+        private Showtime showtime;
+        private Movie movie;
+        private String missing;
+    }
 
-    public PaymentView(int seatId, int bookingId, User user) {
+    public PaymentView(int seatId, int bookingId, int showtimeId, User user) {
         this.seatId = seatId;
         this.bookingId = bookingId;
+        this.showtimeId = showtimeId;
         this.currentUser = user;
     }
 
@@ -99,9 +137,34 @@ public class PaymentView extends Application {
 
         Scene scene = new Scene(mainLayout, 800, 600);
         primaryStage.setScene(scene);
+        startHoldKeepAlive();
+        primaryStage.setOnHidden(e -> stopHoldKeepAlive());
+        // Closing the window abandons the booking; free the seat right away instead of waiting for the reaper
+        primaryStage.setOnCloseRequest(e -> releaseUnpaidBookingInBackground());
         primaryStage.show();
     }
 
+    private void startHoldKeepAlive() {
+        if (bookingId == null) {
+            return;
+        }
+        holdKeepAlive = new Timeline(new KeyFrame(Duration.seconds(HOLD_EXTEND_INTERVAL_SECONDS), e ->
+                holdExtend.run(() -> seatHoldDAO.extendHolds(bookingId, SeatHoldDAO.DEFAULT_HOLD_TTL_SECONDS), extended -> {
+                    if (!extended) {
+                        stopHoldKeepAlive();
+                    }
+                }, BackgroundTasks::logFailure)));
+        holdKeepAlive.setCycleCount(Animation.INDEFINITE);
+        holdKeepAlive.play();
+    }
+
+    private void stopHoldKeepAlive() {
+        if (holdKeepAlive != null) {
+            holdKeepAlive.stop();
+            holdKeepAlive = null;
+        }
+    }
+
     private VBox createPaymentForm() {
         VBox layout = new VBox(20);
         layout.setPadding(new Insets(20));
@@ -115,18 +178,20 @@ public class PaymentView extends Application {
 
         TextField bookingIdField = createStyledTextField("Booking ID");
         TextField amountField = createStyledTextField("Amount");
-        amountField.setText("10.00");
+        amountField.setText(PaymentController.formatTicketPrice());
         amountField.setDisable(true);
 
         if (bookingId != null) {
             bookingIdField.setText(String.valueOf(bookingId));
             bookingIdField.setDisable(true);
         } else if (seatId != null) {
-            Booking booking = bookingDAO.getBookingBySeatId(seatId);
-            if (booking != null) {
-                bookingIdField.setText(String.valueOf(booking.getID()));
-                bookingIdField.setDisable(true);
-            }
+            int seat = seatId;
+            BackgroundTasks.submit(() -> bookingDAO.getBookingBySeatId(seat), booking -> {
+                if (booking != null) {
+                    bookingIdField.setText(String.valueOf(booking.getID()));
+                    bookingIdField.setDisable(true);
+                }
+            }, BackgroundTasks::logFailure);
         }
 
         Label bookingIdLabel = createFieldLabel("Booking ID:");
@@ -159,18 +224,8 @@ public class PaymentView extends Application {
         returnBtn.setPrefWidth(200);
         returnBtn.setOnAction(e -> {
             try {
-                // Clean up unpaid booking and seat reservation
-                if (bookingId != null) {
-                    Booking booking = bookingDAO.getBookingByID(bookingId);
-                    if (booking != null && !booking.isPaid()) {
-                        // Delete the unpaid booking
-                        bookingDAO.deleteBooking(bookingId);
-                        // Remove seat reservation if exists
-                        if (seatId != null) {
-                            seatDAO.updateSeatStatus(seatId, false);
-                        }
-                    }
-                }
+                // Clean up unpaid booking and free its seat (no-op once paid)
+                releaseUnpaidBookingInBackground();
 
                 new LoginView().start(new Stage());
                 ((Stage) returnBtn.getScene().getWindow()).close();
@@ -179,48 +234,40 @@ public class PaymentView extends Application {
             }
         });
 
+        processBtn.disableProperty().bind(payment.runningProperty());
         processBtn.setOnAction(e -> {
             try {
                 int bookingId = Integer.parseInt(bookingIdField.getText());
                 double amount = Double.parseDouble(amountField.getText());
                 String paymentMethod = paymentMethodCombo.getValue();
 
-                // First check if booking exists
-                Booking booking = bookingDAO.getBookingByID(bookingId);
-                if (booking == null) {
-                    showStatusMessage("Error: Booking ID " + bookingId + " not found!", false);
-                    return;
-                }
-
-                // Check if booking is already paid
-                if (booking.isPaid()) {
-                    showStatusMessage("Error: This booking is already paid!", false);
-                    return;
-                }
-
-                // Process payment
-                boolean success = paymentController.processPayment(bookingId, amount, paymentMethod);
-
-                if (success) {
-                    showStatusMessage("Payment processed successfully!", true);
-                    // Update booking status to paid
-                    booking.setPaid(true);
-                    bookingDAO.updateBooking(booking);
-
-                    // Now mark seat as booked
-                    if (seatId != null) {
-                        seatDAO.updateSeatStatus(seatId, true);
-                    }
-
-                    displayTicket(bookingId);
-                } else {
-                    showStatusMessage("Payment failed. Please try again.", false);
-                    // Clean up failed payment
-                    bookingDAO.deleteBooking(bookingId);
-                    if (seatId != null) {
-                        seatDAO.updateSeatStatus(seatId, false);
+                // A double-click doesn't charge twice: the second click is ignored while paying
+                payment.run(() -> processPayment(bookingId, amount, paymentMethod), outcome -> {
+                    switch (outcome) {
+                        case BOOKING_NOT_FOUND:
+                            showStatusMessage("Error: Booking ID " + bookingId + " not found!", false);
+                            break;
+                        case ALREADY_PAID:
+                            showStatusMessage("Error: This booking is already paid!", false);
+                            break;
+                        case HOLD_EXPIRED:
+                            showStatusMessage("Your seat hold has expired. Please select a seat again.", false);
+                            break;
+                        case HOLD_EXPIRED_DURING_PAYMENT:
+                            stopHoldKeepAlive();
+                            showStatusMessage("Your seat hold expired during payment. The payment will be refunded.", false);
+                            break;
+                        case PAID:
+                            stopHoldKeepAlive();
+                            showStatusMessage("Payment processed successfully!", true);
+                            displayTicket(bookingId);
+                            break;
+                        default:
+                            showStatusMessage("Payment failed. Please try again.", false);
+                            stopHoldKeepAlive();
+                            break;
                     }
-                }
+                }, error -> showStatusMessage("Payment failed: " + error.getMessage(), false));
             } catch (NumberFormatException ex) {
                 showStatusMessage("Invalid input. Please enter a valid booking ID.", false);
             }
@@ -234,14 +281,63 @@ public class PaymentView extends Application {
         return layout;
     }
 
-    private void displayTicket(int bookingId) {
-        // Fetch booking details from database
+    /**
+     * Runs in the background: checks the booking and its seat hold, then charges it
+     */
+    private PaymentOutcome processPayment(int bookingId, double amount, String paymentMethod) {
+        // First check if booking exists
         Booking booking = bookingDAO.getBookingByID(bookingId);
         if (booking == null) {
-            showStatusMessage("Error: Booking information not found!", false);
-            return;
+            return PaymentOutcome.BOOKING_NOT_FOUND;
+        }
+
+        // Check if booking is already paid
+        if (booking.isPaid()) {
+            return PaymentOutcome.ALREADY_PAID;
         }
 
+        // Make sure the seat is still held before charging
+        if (!seatHoldDAO.extendHolds(bookingId, SeatHoldDAO.DEFAULT_HOLD_TTL_SECONDS)) {
+            return PaymentOutcome.HOLD_EXPIRED;
+        }
+
+        if (!paymentController.processPayment(bookingId, amount, paymentMethod)) {
+            // Clean up failed payment and free the seat
+            releaseUnpaidBooking();
+            return PaymentOutcome.FAILED;
+        }
+
+        // Mark the booking paid and drop its hold; the seat was already claimed in SeatView
+        if (!bookingDAO.confirmPaidBooking(bookingId)) {
+            // Charged but not confirmed: flag the charge for refund and give the seat back
+            paymentController.flagForRefund(bookingId);
+            releaseUnpaidBooking();
+            return PaymentOutcome.HOLD_EXPIRED_DURING_PAYMENT;
+        }
+        return PaymentOutcome.PAID;
+    }
+
+    private void releaseUnpaidBooking() {
+        if (bookingId != null) {
+            seatController.releaseBooking(showtimeId, seatId != null ? List.of(seatId) : List.of(), bookingId);
+        }
+    }
+
+    /**
+     * Releases the booking without blocking the window from closing. Should the application
+     * exit before it finishes, the hold reaper frees the seat once the hold expires.
+     */
+    private void releaseUnpaidBookingInBackground() {
+        if (bookingId != null) {
+            BackgroundTasks.submit(() -> {
+                releaseUnpaidBooking();
+                return null;
+            }, ignored -> {
+            }, BackgroundTasks::logFailure);
+        }
+    }
+
+    private void displayTicket(int bookingId) {
         // Fetch user details
         User user = currentUser;
         if (user == null) {
@@ -249,26 +345,54 @@ public class PaymentView extends Application {
             return;
         }
 
+        ticketLoad.run(() -> loadTicket(bookingId), ticket -> {
+            if (ticket.missing != null) {
+                showStatusMessage("Error: " + ticket.missing + " information not found!", false);
+            } else {
+                showTicket(bookingId, user, ticket);
+            }
+        }, error -> showStatusMessage("Error: Could not load your ticket: " + error.getMessage(), false));
+    }
+
+    /**
+     * Runs in the background: fetches the booking, seat, showtime and movie for the ticket
+     */
+    private TicketDetails loadTicket(int bookingId) {
+        TicketDetails ticket = new TicketDetails();
+
+        // Fetch booking details from database
+        ticket.booking = bookingDAO.getBookingByID(bookingId);
+        if (ticket.booking == null) {
+            ticket.missing = "Booking";
+            return ticket;
+        }
+
         // Fetch seat details
-        Seat seat = seatDAO.getSeatByID(seatId != null ? seatId : findSeatIdForBooking(bookingId));
-        if (seat == null) {
-            showStatusMessage("Error: Seat information not found!", false);
-            return;
+        ticket.seat = seatDAO.getSeatByID(seatId != null ? seatId : findSeatIdForBooking(bookingId));
+        if (ticket.seat == null) {
+            ticket.missing = "Seat";
+            return ticket;
         }
 
         // Fetch showtime details
-        Showtime showtime = showtimeDAO.getShowtimeByID(booking.getShowtimeID());
-        if (showtime == null) {
-            showStatusMessage("Error: Showtime information not found!", false);
-            return;
+        ticket.showtime = showtimeDAO.getShowtimeByID(ticket.booking.getShowtimeID());
+        if (ticket.showtime == null) {
+            ticket.missing = "Showtime";
+            return ticket;
         }
 
         // Fetch movie details
-        Movie movie = movieDAO.getMovieByID(booking.getMovieID());
-        if (movie == null) {
-            showStatusMessage("Error: Movie information not found!", false);
-            return;
+        ticket.movie = movieDAO.getMovieByID(ticket.booking.getMovieID());
+        if (ticket.movie == null) {
+            ticket.missing = "Movie";
         }
+        return ticket;
+    }
+
+    private void showTicket(int bookingId, User user, TicketDetails ticket) {
+        Seat seat = ticket.seat;
+        Showtime showtime = ticket.showtime;
+        Movie movie = ticket.movie;
 
         // Create ticket dialog
         Dialog<Void> ticketDialog = new Dialog<>();
@@ -308,7 +432,7 @@ public class PaymentView extends Application {
         VBox bookingSection = createTicketSection("BOOKING DETAILS");
         bookingSection.getChildren().addAll(
                 createTicketField("Booking ID:", String.valueOf(bookingId)),
-                createTicketField("Amount Paid:", "$10.00")
+                createTicketField("Amount Paid:", "$" + PaymentController.formatTicketPrice())
         );
 
         Label thanksLabel = new Label("Thank you for your purchase!");
@@ -0,0 +1,331 @@
+package view;
+
+import javafx.geometry.VPos;
+import javafx.scene.Cursor;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import model.Seat;
+
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+/**
+ * Seat map drawn on a single Canvas, for halls too large for one Button per seat.
+ *
+ * Seats are laid out on the same (row, col) grid as the button view. Mouse positions are
+ * mapped back to a seat with plain arithmetic, and only the cells inside the viewport are
+ * painted, so the cost of a repaint depends on the window size rather than the hall size.
+ * The wheel zooms around the cursor and dragging pans the map.
+ */
+final class SeatCanvas extends Pane {
+    private static final double MARGIN = 30;        // room for row/column labels
+    private static final double MIN_SCALE = 0.2;
+    private static final double MAX_SCALE = 3.0;
+    private static final double ZOOM_STEP = 1.1;
+    private static final double DRAG_THRESHOLD = 4;
+    private static final double MIN_LABEL_SIZE = 18; // seats smaller than this on screen are drawn without text
+
+    private static final Color AVAILABLE = Color.web(SeatView.AVAILABLE_SEAT_COLOR);
+    private static final Color BOOKED = Color.web(SeatView.BOOKED_SEAT_COLOR);
+    private static final Color SELECTED = Color.web(SeatView.SELECTED_SEAT_COLOR);
+    private static final Color UNAVAILABLE = Color.web(SeatView.UNAVAILABLE_SEAT_COLOR);
+    private static final Color SCREEN = Color.web("#e0e0e0");
+
+    private final SeatGrid grid;
+    private final double seatSize;
+    private final double cellSize;
+    private final Canvas canvas = new Canvas();
+    private final Tooltip tooltip = new Tooltip();
+    private final BitSet takenSinceLoad = new BitSet(); // seats lost to other users while the view is open
+
+    private Consumer<Seat> onSeatSelected = seat -> { };
+    private int selectedIndex = -1;
+    private int hoverIndex = -1;
+
+    // View transform: screen = offset + world * scale
+    private double scale = 1;
+    private double offsetX;
+    private double offsetY;
+    private boolean fitted;
+
+    private double pressX;
+    private double pressY;
+    private double pressOffsetX;
+    private double pressOffsetY;
+    private boolean dragging;
+
+    SeatCanvas(SeatGrid grid, double seatSize, double spacing) {
+        this.grid = grid;
+        this.seatSize = seatSize;
+        this.cellSize = seatSize + spacing;
+
+        getChildren().add(canvas);
+        setStyle("-fx-background-color: white; -fx-background-radius: 5;");
+
+        canvas.setOnScroll(this::handleScroll);
+        canvas.setOnMousePressed(this::handlePressed);
+        canvas.setOnMouseDragged(this::handleDragged);
+        canvas.setOnMouseClicked(this::handleClicked);
+        canvas.setOnMouseMoved(e -> updateHover(hitTest(e.getX(), e.getY())));
+        canvas.setOnMouseExited(e -> updateHover(-1));
+    }
+
+    /**
+     * Sets the callback invoked when an available seat is clicked. The canvas does not change
+     * its selection by itself; the callback decides via {@link #setSelectedSeat}.
+     */
+    void setOnSeatSelected(Consumer<Seat> onSeatSelected) {
+        this.onSeatSelected = onSeatSelected;
+    }
+
+    void setSelectedSeat(Seat seat) {
+        selectedIndex = seat != null ? grid.indexOf(seat) : -1;
+        redraw();
+    }
+
+    /**
+     * Shows a seat as booked, e.g. after another user claimed it first
+     */
+    void markBooked(Seat seat) {
+        int index = grid.indexOf(seat);
+        if (index >= 0) {
+            takenSinceLoad.set(index);
+            if (selectedIndex == index) {
+                selectedIndex = -1;
+            }
+            redraw();
+        }
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double width = getWidth();
+        double height = getHeight();
+        if (canvas.getWidth() != width || canvas.getHeight() != height) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            if (!fitted && width > 0 && height > 0) {
+                fitToView(width, height);
+                fitted = true;
+            }
+            redraw();
+        }
+    }
+
+    /**
+     * Scales the whole hall into the viewport (never above natural size) and centers it
+     */
+    private void fitToView(double width, double height) {
+        double worldWidth = worldWidth();
+        double worldHeight = worldHeight();
+        scale = clamp(Math.min(width / worldWidth, height / worldHeight), MIN_SCALE, 1.0);
+        offsetX = (width - worldWidth * scale) / 2;
+        offsetY = (height - worldHeight * scale) / 2;
+    }
+
+    private double worldWidth() {
+        return MARGIN * 2 + grid.getCols() * cellSize;
+    }
+
+    private double worldHeight() {
+        return MARGIN * 3 + grid.getRows() * cellSize; // extra margin for the screen below the seats
+    }
+
+    private void handleScroll(ScrollEvent e) {
+        if (e.getDeltaY() == 0) {
+            return;
+        }
+        double newScale = clamp(e.getDeltaY() > 0 ? scale * ZOOM_STEP : scale / ZOOM_STEP, MIN_SCALE, MAX_SCALE);
+
+        // Keep the point under the cursor fixed while zooming
+        offsetX = e.getX() - (e.getX() - offsetX) * newScale / scale;
+        offsetY = e.getY() - (e.getY() - offsetY) * newScale / scale;
+        scale = newScale;
+        redraw();
+        e.consume();
+    }
+
+    private void handlePressed(MouseEvent e) {
+        pressX = e.getX();
+        pressY = e.getY();
+        pressOffsetX = offsetX;
+        pressOffsetY = offsetY;
+        dragging = false;
+    }
+
+    private void handleDragged(MouseEvent e) {
+        double dx = e.getX() - pressX;
+        double dy = e.getY() - pressY;
+        if (!dragging && Math.abs(dx) < DRAG_THRESHOLD && Math.abs(dy) < DRAG_THRESHOLD) {
+            return;
+        }
+        dragging = true;
+        canvas.setCursor(Cursor.MOVE);
+        offsetX = pressOffsetX + dx;
+        offsetY = pressOffsetY + dy;
+        redraw();
+    }
+
+    private void handleClicked(MouseEvent e) {
+        if (dragging) {
+            dragging = false;
+            hoverIndex = hitTest(e.getX(), e.getY());
+            canvas.setCursor(cursorFor(hoverIndex));
+            redraw();
+            return;
+        }
+        if (e.getButton() != MouseButton.PRIMARY) {
+            return;
+        }
+        int index = hitTest(e.getX(), e.getY());
+        if (index >= 0 && isSelectable(index)) {
+            onSeatSelected.accept(grid.getSeat(index));
+        }
+    }
+
+    private void updateHover(int index) {
+        if (index == hoverIndex) {
+            return;
+        }
+        hoverIndex = index;
+        canvas.setCursor(cursorFor(index));
+        if (index >= 0) {
+            tooltip.setText(grid.getLabel(index) + " - " + describe(index));
+            Tooltip.install(canvas, tooltip);
+        } else {
+            Tooltip.uninstall(canvas, tooltip);
+        }
+        redraw();
+    }
+
+    private Cursor cursorFor(int index) {
+        return index >= 0 && isSelectable(index) ? Cursor.HAND : Cursor.DEFAULT;
+    }
+
+    /**
+     * Maps a point on the canvas to the seat drawn there
+     * @return row-major seat index, or -1 if the point is outside every seat
+     */
+    private int hitTest(double x, double y) {
+        double worldX = (x - offsetX) / scale - MARGIN;
+        double worldY = (y - offsetY) / scale - MARGIN;
+        if (worldX < 0 || worldY < 0) {
+            return -1;
+        }
+        int col = (int) (worldX / cellSize);
+        int row = (int) (worldY / cellSize);
+        if (col >= grid.getCols() || row >= grid.getRows()) {
+            return -1;
+        }
+        // Points in the gap between two seats don't hit either of them
+        if (worldX - col * cellSize > seatSize || worldY - row * cellSize > seatSize) {
+            return -1;
+        }
+        return row * grid.getCols() + col;
+    }
+
+    private boolean isSelectable(int index) {
+        Seat seat = grid.getSeat(index);
+        return seat != null && !seat.isBooked() && !takenSinceLoad.get(index);
+    }
+
+    private String describe(int index) {
+        Seat seat = grid.getSeat(index);
+        if (seat == null) {
+            return "Not available";
+        }
+        return seat.isBooked() || takenSinceLoad.get(index) ? "Booked" : "Available";
+    }
+
+    private Color colorOf(int index) {
+        Seat seat = grid.getSeat(index);
+        if (seat == null) {
+            return UNAVAILABLE;
+        }
+        if (seat.isBooked() || takenSinceLoad.get(index)) {
+            return BOOKED;
+        }
+        if (index == selectedIndex) {
+            return SELECTED;
+        }
+        return index == hoverIndex ? AVAILABLE.brighter() : AVAILABLE;
+    }
+
+    /**
+     * Paints the cells inside the viewport plus the labels and the screen
+     */
+    private void redraw() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        gc.clearRect(0, 0, width, height);
+
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        int firstCol = Math.max(0, (int) Math.floor(((0 - offsetX) / scale - MARGIN) / cellSize));
+        int lastCol = Math.min(cols - 1, (int) Math.floor(((width - offsetX) / scale - MARGIN) / cellSize));
+        int firstRow = Math.max(0, (int) Math.floor(((0 - offsetY) / scale - MARGIN) / cellSize));
+        int lastRow = Math.min(rows - 1, (int) Math.floor(((height - offsetY) / scale - MARGIN) / cellSize));
+
+        double size = seatSize * scale;
+        double arc = 5 * scale;
+        boolean drawText = size >= MIN_LABEL_SIZE;
+
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.setFont(Font.font("Arial", FontWeight.BOLD, Math.max(8, 12 * scale)));
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            double y = screenY(row);
+            for (int col = firstCol; col <= lastCol; col++) {
+                int index = row * cols + col;
+                double x = screenX(col);
+                gc.setFill(colorOf(index));
+                gc.fillRoundRect(x, y, size, size, arc, arc);
+                if (drawText && grid.getSeat(index) != null) {
+                    gc.setFill(Color.WHITE);
+                    gc.fillText(grid.getLabel(index), x + size / 2, y + size / 2);
+                }
+            }
+        }
+
+        // Row labels (A, B, C, etc.) left of the seats, column labels (1, 2, 3, etc.) above them
+        gc.setFill(Color.BLACK);
+        double labelOffset = MARGIN * scale / 2;
+        for (int row = firstRow; row <= lastRow; row++) {
+            gc.fillText(grid.getRowLabel(row), screenX(0) - labelOffset, screenY(row) + size / 2);
+        }
+        for (int col = firstCol; col <= lastCol; col++) {
+            gc.fillText(grid.getColLabel(col), screenX(col) + size / 2, screenY(0) - labelOffset);
+        }
+
+        // Screen representation below the seats, as in the button view
+        double screenTop = offsetY + (MARGIN * 2 + rows * cellSize) * scale;
+        double screenWidth = (cols * cellSize - (cellSize - seatSize)) * scale;
+        gc.setFill(SCREEN);
+        gc.fillRect(screenX(0), screenTop, screenWidth, MARGIN * scale * 0.8);
+        gc.setFill(Color.BLACK);
+        gc.fillText("SCREEN", screenX(0) + screenWidth / 2, screenTop + MARGIN * scale * 0.4);
+    }
+
+    private double screenX(int col) {
+        return offsetX + (MARGIN + col * cellSize) * scale;
+    }
+
+    private double screenY(int row) {
+        return offsetY + (MARGIN + row * cellSize) * scale;
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
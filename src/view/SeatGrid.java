@@ -0,0 +1,141 @@
+package view;
+
+import config.HallLayout;
+import model.Seat;
+
+import java.util.List;
+
+/**
+ * Seats of a showtime indexed by (row, col), with precomputed seat labels.
+ *
+ * Seat numbers follow the "A1", "B12", "AA3" convention of {@link HallLayout}: a row label
+ * followed by a 1-based column number. Building the index parses every seat number once,
+ * so lookups while rendering are a plain array access instead of a search over the seat list.
+ */
+final class SeatGrid {
+    private final int rows;
+    private final int cols;
+    private final Seat[] cells;       // row-major, null where no seat exists
+    private final String[] labels;    // row-major
+    private final String[] rowLabels;
+    private final String[] colLabels;
+
+    private SeatGrid(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = new Seat[rows * cols];
+        this.labels = new String[rows * cols];
+        this.rowLabels = new String[rows];
+        this.colLabels = new String[cols];
+
+        for (int row = 0; row < rows; row++) {
+            rowLabels[row] = HallLayout.rowLabel(row);
+        }
+        for (int col = 0; col < cols; col++) {
+            colLabels[col] = String.valueOf(col + 1);
+        }
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                labels[row * cols + col] = rowLabels[row] + colLabels[col];
+            }
+        }
+    }
+
+    /**
+     * Indexes the given seats. The grid is at least minRows x minCols and grows to fit any
+     * seat beyond that; seats with unparseable numbers are skipped.
+     */
+    static SeatGrid build(List<Seat> seats, int minRows, int minCols) {
+        int rows = minRows;
+        int cols = minCols;
+        int[] positions = new int[seats.size() * 2];
+
+        for (int i = 0; i < seats.size(); i++) {
+            String number = seats.get(i).getSeatNumber();
+            int row = parseRow(number);
+            int col = parseCol(number);
+            positions[i * 2] = row;
+            positions[i * 2 + 1] = col;
+            if (row >= 0 && col >= 0) {
+                rows = Math.max(rows, row + 1);
+                cols = Math.max(cols, col + 1);
+            }
+        }
+
+        SeatGrid grid = new SeatGrid(rows, cols);
+        for (int i = 0; i < seats.size(); i++) {
+            int row = positions[i * 2];
+            int col = positions[i * 2 + 1];
+            if (row >= 0 && col >= 0) {
+                grid.cells[row * cols + col] = seats.get(i);
+            }
+        }
+        return grid;
+    }
+
+    private static int parseRow(String seatNumber) {
+        return HallLayout.parseRow(seatNumber);
+    }
+
+    private static int parseCol(String seatNumber) {
+        return HallLayout.parseCol(seatNumber);
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    int getCols() {
+        return cols;
+    }
+
+    int getSeatCount() {
+        int count = 0;
+        for (Seat seat : cells) {
+            if (seat != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return row-major position of the seat in this grid, or -1 if it is not part of it
+     */
+    int indexOf(Seat seat) {
+        int row = parseRow(seat.getSeatNumber());
+        int col = parseCol(seat.getSeatNumber());
+        if (row < 0 || col < 0 || row >= rows || col >= cols) {
+            return -1;
+        }
+        int index = row * cols + col;
+        return cells[index] == seat ? index : -1;
+    }
+
+    /**
+     * @return the seat at the given position, or null if there is none
+     */
+    Seat getSeat(int row, int col) {
+        return cells[row * cols + col];
+    }
+
+    Seat getSeat(int index) {
+        return cells[index];
+    }
+
+    String getLabel(int row, int col) {
+        return labels[row * cols + col];
+    }
+
+    String getLabel(int index) {
+        return labels[index];
+    }
+
+    String getRowLabel(int row) {
+        return rowLabels[row];
+    }
+
+    String getColLabel(int col) {
+        return colLabels[col];
+    }
+}
@@ -1,8 +1,10 @@
 package view;
 
+import config.AppConfig;
+import config.HallLayout;
+import controller.PaymentController;
 import controller.SeatController;
 import controller.ShowtimeController;
-import dao.BookingDAO;
 import javafx.application.Application;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -11,15 +13,13 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
-import model.Booking;
 import model.Seat;
+import model.SeatClaimResult;
 import model.Showtime;
 import model.User;
 
 import java.time.format.DateTimeFormatter;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * View class for seat selection functionality
@@ -30,21 +30,20 @@ public class SeatView extends Application {
     private static final int GRID_SPACING = 5;
     private static final int PADDING = 15;
     private static final String BACKGROUND_COLOR = "#f5f5f5";
-    private static final String AVAILABLE_SEAT_COLOR = "#4CAF50";
-    private static final String BOOKED_SEAT_COLOR = "#ff4444";
-    private static final String SELECTED_SEAT_COLOR = "#2196F3";
-    private static final String UNAVAILABLE_SEAT_COLOR = "#cccccc";
+    static final String AVAILABLE_SEAT_COLOR = "#4CAF50";
+    static final String BOOKED_SEAT_COLOR = "#ff4444";
+    static final String SELECTED_SEAT_COLOR = "#2196F3";
+    static final String UNAVAILABLE_SEAT_COLOR = "#cccccc";
     private static final String SUCCESS_COLOR = "#00c853";
     private static final String ERROR_COLOR = "#d50000";
 
     // Theater configuration
-    private static final int ROWS = 10;
-    private static final int COLS = 15;
+    // Halls with more seats than this are drawn on a SeatCanvas instead of one button per seat
+    private static final int CANVAS_SEAT_THRESHOLD = AppConfig.getInt("seatmap.canvasThreshold", 500);
 
     // Controllers
     private final SeatController seatController;
     private final ShowtimeController showtimeController;
-    private final BookingDAO bookingDAO;
 
     // Model data
     private final int selectedShowtimeId;
@@ -56,7 +55,13 @@ public class SeatView extends Application {
     private Label statusLabel;
     private Button bookButton;
     private GridPane seatGrid;
-    private Map<String, Button> seatButtonMap;
+    private SeatCanvas seatCanvas;
+    private SeatGrid seatIndex;
+    private Button[] seatButtons; // row-major, parallel to seatIndex
+
+    // Background work
+    private final BackgroundTasks.TaskSlot<LoadedSeatMap> seatMapLoad = new BackgroundTasks.TaskSlot<>();
+    private final BackgroundTasks.TaskSlot<SeatClaimResult> seatClaim = new BackgroundTasks.TaskSlot<>();
 
     /**
      * Constructor initializes controllers and showtime ID
@@ -67,40 +72,67 @@ public class SeatView extends Application {
         this.currentUser = user;
         this.seatController = new SeatController();
         this.showtimeController = new ShowtimeController();
-        this.bookingDAO = new BookingDAO();
-        this.seatButtonMap = new HashMap<>();
     }
 
     @Override
     public void start(Stage primaryStage) {
-        // Load showtime information
-        showtime = showtimeController.getShowtimeById(selectedShowtimeId);
-        if (showtime == null) {
-            showAlert("Error", "Showtime not found");
-            primaryStage.close();
-            return;
-        }
-
         setupStage(primaryStage);
 
-        // Main layout
+        // Show the window right away and load the seat map in the background
         BorderPane root = createMainLayout();
+        root.setCenter(new Label("Loading seats..."));
+        primaryStage.setScene(new Scene(root));
+        primaryStage.show();
 
+        seatMapLoad.run(this::loadSeatMap, loaded -> {
+            if (loaded == null) {
+                showAlert("Error", "Showtime not found");
+                primaryStage.close();
+                return;
+            }
+            showtime = loaded.showtime;
+            seatIndex = loaded.seats;
+            showSeatMap(root);
+        }, error -> {
+            showAlert("Error", "Could not load the seats: " + error.getMessage());
+            primaryStage.close();
+        });
+    }
+
+    /**
+     * Runs in the background: loads the showtime and its seats
+     * @return null if the showtime doesn't exist
+     */
+    private LoadedSeatMap loadSeatMap() {
+        Showtime loadedShowtime = showtimeController.getShowtimeById(selectedShowtimeId);
+        if (loadedShowtime == null) {
+            return null;
+        }
+        // Index the seats by (row, col) once; rendering then never searches the seat list
+        HallLayout layout = HallLayout.forHall(loadedShowtime.getHall());
+        SeatGrid seats = SeatGrid.build(seatController.getSeatsByShowtime(selectedShowtimeId), layout.getRows(), layout.getCols());
+        return new LoadedSeatMap(loadedShowtime, seats);
+    }
+
+    /**
+     * Builds the seat map once the showtime and seats are loaded
+     */
+    private void showSeatMap(BorderPane root) {
         // Load UI components
         HBox headerBox = createHeader();
-        seatGrid = createSeatGrid();
-        ScrollPane scrollPane = createScrollPane(seatGrid);
+        Region seatMap;
+        if (seatIndex.getSeatCount() > CANVAS_SEAT_THRESHOLD) {
+            seatMap = createSeatCanvas();
+        } else {
+            seatGrid = createSeatGrid();
+            seatMap = createScrollPane(seatGrid);
+        }
         HBox bottomPanel = createBottomPanel();
 
         // Assemble UI
         root.setTop(headerBox);
-        root.setCenter(scrollPane);
+        root.setCenter(seatMap);
         root.setBottom(bottomPanel);
-
-        // Create and set scene
-        Scene scene = new Scene(root);
-        primaryStage.setScene(scene);
-        primaryStage.show();
     }
 
     /**
@@ -148,18 +180,19 @@ public class SeatView extends Application {
         grid.setStyle("-fx-background-color: white; -fx-background-radius: 5;");
         grid.setAlignment(Pos.CENTER);
 
+        int rows = seatIndex.getRows();
+        int cols = seatIndex.getCols();
+
         // Add row labels (A, B, C, etc.)
-        char rowChar = 'A';
-        for (int row = 0; row < ROWS; row++) {
-            Label rowLabel = new Label(String.valueOf(rowChar));
+        for (int row = 0; row < rows; row++) {
+            Label rowLabel = new Label(seatIndex.getRowLabel(row));
             rowLabel.setStyle("-fx-font-weight: bold;");
             grid.add(rowLabel, 0, row + 1);
-            rowChar++;
         }
 
         // Add column labels (1, 2, 3, etc.)
-        for (int col = 0; col < COLS; col++) {
-            Label colLabel = new Label(String.valueOf(col + 1));
+        for (int col = 0; col < cols; col++) {
+            Label colLabel = new Label(seatIndex.getColLabel(col));
             colLabel.setStyle("-fx-font-weight: bold;");
             grid.add(colLabel, col + 1, 0);
         }
@@ -167,9 +200,9 @@ public class SeatView extends Application {
         // Add screen representation at the top
         Label screenLabel = new Label("SCREEN");
         screenLabel.setStyle("-fx-font-weight: bold; -fx-background-color: #e0e0e0; -fx-padding: 5;");
-        screenLabel.setPrefWidth((COLS * SEAT_SIZE) + ((COLS - 1) * GRID_SPACING));
+        screenLabel.setPrefWidth((cols * SEAT_SIZE) + ((cols - 1) * GRID_SPACING));
         screenLabel.setAlignment(Pos.CENTER);
-        grid.add(screenLabel, 1, ROWS + 2, COLS, 1);
+        grid.add(screenLabel, 1, rows + 2, cols, 1);
 
         // Populate seats
         populateSeats(grid);
@@ -178,27 +211,35 @@ public class SeatView extends Application {
     }
 
     /**
-     * Populates the seat grid with buttons representing seats
+     * Populates the seat grid with buttons representing seats, in one pass over the index
      */
     private void populateSeats(GridPane grid) {
-        List<Seat> seats = seatController.getSeatsByShowtime(selectedShowtimeId);
-        char rowChar = 'A';
+        int rows = seatIndex.getRows();
+        int cols = seatIndex.getCols();
+        seatButtons = new Button[rows * cols];
 
-        for (int row = 0; row < ROWS; row++) {
-            for (int col = 0; col < COLS; col++) {
-                String seatNumber = String.format("%c%d", rowChar, col + 1);
-                Seat seat = findSeatByNumber(seats, seatNumber);
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                Seat seat = seatIndex.getSeat(row, col);
 
-                Button seatBtn = createSeatButton(seat, seatNumber);
+                Button seatBtn = createSeatButton(seat, seatIndex.getLabel(row, col));
                 grid.add(seatBtn, col + 1, row + 1); // +1 to account for row/col labels
 
                 // Store button reference for later use
-                seatButtonMap.put(seatNumber, seatBtn);
+                seatButtons[row * cols + col] = seatBtn;
             }
-            rowChar++;
         }
     }
 
+    /**
+     * Creates a canvas-drawn seat map for large halls, where one button per seat is too heavy
+     */
+    private SeatCanvas createSeatCanvas() {
+        seatCanvas = new SeatCanvas(seatIndex, SEAT_SIZE, GRID_SPACING);
+        seatCanvas.setOnSeatSelected(this::handleSeatSelection);
+        return seatCanvas;
+    }
+
     /**
      * Creates a scroll pane for the seat grid
      */
@@ -309,7 +350,7 @@ public class SeatView extends Application {
     private void styleAvailableSeat(Button seatBtn, Seat seat) {
         seatBtn.setStyle("-fx-background-color: " + AVAILABLE_SEAT_COLOR + "; -fx-text-fill: white;");
         seatBtn.setTooltip(new Tooltip("Available"));
-        seatBtn.setOnAction(e -> handleSeatSelection(seat, seatBtn));
+        seatBtn.setOnAction(e -> handleSeatSelection(seat));
     }
 
     /**
@@ -324,21 +365,25 @@ public class SeatView extends Application {
     /**
      * Handles the selection of a seat
      */
-    private void handleSeatSelection(Seat seat, Button seatBtn) {
-        // Deselect previous selection
-        if (selectedSeat != null) {
-            Button prevBtn = seatButtonMap.get(selectedSeat.getSeatNumber());
-            if (prevBtn != null) {
-                prevBtn.setStyle("-fx-background-color: " + AVAILABLE_SEAT_COLOR + "; -fx-text-fill: white;");
+    private void handleSeatSelection(Seat seat) {
+        if (seatCanvas != null) {
+            seatCanvas.setSelectedSeat(seat);
+        } else {
+            // Deselect previous selection
+            if (selectedSeat != null) {
+                Button prevBtn = findSeatButton(selectedSeat);
+                if (prevBtn != null) {
+                    prevBtn.setStyle("-fx-background-color: " + AVAILABLE_SEAT_COLOR + "; -fx-text-fill: white;");
+                }
             }
+            findSeatButton(seat).setStyle("-fx-background-color: " + SELECTED_SEAT_COLOR + "; -fx-text-fill: white;");
         }
 
         // Select new seat
         selectedSeat = seat;
-        seatBtn.setStyle("-fx-background-color: " + SELECTED_SEAT_COLOR + "; -fx-text-fill: white;");
         bookButton.setDisable(false);
 
-        showStatusMessage("Selected seat: " + seat.getSeatNumber() + " (Price: $10.00)", true);
+        showStatusMessage("Selected seat: " + seat.getSeatNumber() + " (Price: $" + PaymentController.formatTicketPrice() + ")", true);
     }
 
     /**
@@ -350,34 +395,53 @@ public class SeatView extends Application {
             return;
         }
 
-        try {
-            // Use the current user's ID instead of hardcoded 1
-            boolean bookingCreated = bookingDAO.createNewBookingForSeat(
-                    selectedSeat.getId(),
-                    currentUser.getID(),  // Use current user's ID
-                    showtime.getMovieId(),
-                    selectedShowtimeId
-            );
-
-            if (!bookingCreated) {
-                showAlert("Error", "Failed to create booking");
-                return;
-            }
-
-            Booking booking = bookingDAO.getBookingBySeatId(selectedSeat.getId());
-            if (booking == null) {
-                showAlert("Error", "Booking not found after creation");
+        // Claim the seat atomically - it is marked booked only if nobody else got it first.
+        // The user may pick another seat while the claim runs, so the callbacks use this one.
+        Seat seat = selectedSeat;
+        int seatId = seat.getId();
+        bookButton.setDisable(true);
+        showStatusMessage("Booking seat " + seat.getSeatNumber() + "...", true);
+        seatClaim.run(() -> seatController.claimSeats(selectedShowtimeId, List.of(seatId), currentUser.getID()), claim -> {
+            if (!claim.isSuccess()) {
+                if (!claim.getLostSeatIds().isEmpty()) {
+                    handleLostSeat(seat);
+                } else {
+                    bookButton.setDisable(false);
+                    showAlert("Error", "Failed to create booking");
+                }
                 return;
             }
 
             // Pass the user to PaymentView
-            PaymentView paymentView = new PaymentView(selectedSeat.getId(), booking.getID(), currentUser);
+            PaymentView paymentView = new PaymentView(seatId, claim.getBookingId(), selectedShowtimeId, currentUser);
             Stage paymentStage = new Stage();
             paymentView.start(paymentStage);
 
             ((Stage) bookButton.getScene().getWindow()).close();
-        } catch (Exception e) {
-            showAlert("Error", "An error occurred while processing your booking: " + e.getMessage());
+        }, error -> {
+            bookButton.setDisable(false);
+            showAlert("Error", "An error occurred while processing your booking: " + error.getMessage());
+        });
+    }
+
+    /**
+     * Marks a seat as booked after another user claimed it first
+     */
+    private void handleLostSeat(Seat seat) {
+        if (seatCanvas != null) {
+            seatCanvas.markBooked(seat);
+        } else {
+            Button lostBtn = findSeatButton(seat);
+            if (lostBtn != null) {
+                styleBookedSeat(lostBtn);
+            }
+        }
+        showStatusMessage("Seat " + seat.getSeatNumber() + " was just booked by someone else. Please choose another seat.", false);
+        if (selectedSeat == seat) {
+            selectedSeat = null;
+            bookButton.setDisable(true);
+        } else {
+            bookButton.setDisable(selectedSeat == null);
         }
     }
 
@@ -394,13 +458,11 @@ public class SeatView extends Application {
     }
 
     /**
-     * Finds a seat by its seat number
+     * Finds the button showing the given seat
      */
-    private Seat findSeatByNumber(List<Seat> seats, String seatNumber) {
-        return seats.stream()
-                .filter(s -> s.getSeatNumber().equalsIgnoreCase(seatNumber))
-                .findFirst()
-                .orElse(null);
+    private Button findSeatButton(Seat seat) {
+        int index = seatIndex.indexOf(seat);
+        return index >= 0 ? seatButtons[index] : null;
     }
 
     /**
@@ -447,4 +509,17 @@ public class SeatView extends Application {
     public static void main(String[] args) {
         launch(args);
     }
+
+    /**
+     * Showtime and seat index, loaded together off the FX thread
+     */
+    private static final class LoadedSeatMap {
+        private final Showtime showtime;
+        private final SeatGrid seats;
+
+        private LoadedSeatMap(Showtime showtime, SeatGrid seats) {
+            this.showtime = showtime;
+            this.seats = seats;
+        }
+    }
 }
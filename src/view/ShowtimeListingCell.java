@@ -0,0 +1,61 @@
+package view;
+
+import javafx.geometry.Insets;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import model.ShowtimeListing;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * List cell for the admin showtime list. The labels are created once per cell and only their
+ * text changes when the cell is reused for another showtime while scrolling.
+ */
+final class ShowtimeListingCell extends ListCell<ShowtimeListing> {
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("EEE, MMM d, yyyy h:mm a");
+    private static final String EVEN_ROW_STYLE = "-fx-background-color: #f9f9f9;";
+    private static final String ODD_ROW_STYLE = "-fx-background-color: white;";
+
+    private final Label movieLabel = new Label();
+    private final Label dateTimeLabel = new Label();
+    private final Label hallLabel = new Label();
+    private final Label salesLabel = new Label();
+    private final VBox content = new VBox(5, movieLabel, dateTimeLabel, hallLabel, salesLabel);
+
+    ShowtimeListingCell() {
+        content.setPadding(new Insets(8, 5, 8, 5));
+
+        movieLabel.setFont(Font.font("Arial", FontWeight.BOLD, 14));
+        movieLabel.setTextFill(Color.valueOf("#303f9f"));
+        dateTimeLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 12));
+        hallLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 12));
+        hallLabel.setTextFill(Color.valueOf("#757575"));
+        salesLabel.setFont(Font.font("Arial", FontWeight.NORMAL, 12));
+        salesLabel.setTextFill(Color.valueOf("#757575"));
+    }
+
+    @Override
+    protected void updateItem(ShowtimeListing listing, boolean empty) {
+        super.updateItem(listing, empty);
+
+        if (empty || listing == null) {
+            setText(null);
+            setGraphic(null);
+            setStyle("");
+            return;
+        }
+
+        movieLabel.setText(listing.getMovieTitle());
+        dateTimeLabel.setText(listing.getShowtime().getDateTime().format(DATE_TIME_FORMAT));
+        hallLabel.setText("Hall: " + listing.getShowtime().getHall());
+        salesLabel.setText("Seats sold: " + listing.getSeatsSold() + " / " + listing.getSeatCount());
+
+        setGraphic(content);
+        // Alternate row colors
+        setStyle(getIndex() % 2 == 0 ? EVEN_ROW_STYLE : ODD_ROW_STYLE);
+    }
+}
@@ -24,11 +24,20 @@ import model.User;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ShowtimeSelectionView extends Application {
+    // Days of showtimes fetched per query; paging between them is served from memory
+    private static final int WINDOW_DAYS = 7;
 
     private final ShowtimeController showtimeController = new ShowtimeController();
+    private final BackgroundTasks.TaskSlot<Map<LocalDate, List<Showtime>>> windowLoad = new BackgroundTasks.TaskSlot<>();
+    private Map<LocalDate, List<Showtime>> showtimesByDay = new HashMap<>();
+    private LocalDate windowStart;
+    private LocalDate windowEnd; // exclusive
     private Movie selectedMovie;
     private DatePicker datePicker;
     private ListView<Showtime> showtimeListView;
@@ -274,10 +283,21 @@ public class ShowtimeSelectionView extends Application {
             return;
         }
 
-        List<Showtime> showtimes = showtimeController.getShowtimesForMovieAndDate(
-                selectedMovie.getID(),
-                datePicker.getValue()
-        );
+        LocalDate date = datePicker.getValue();
+        if (date == null) {
+            showStatusMessage("Please select a date", false);
+            return;
+        }
+        if (windowStart == null || date.isBefore(windowStart) || !date.isBefore(windowEnd)) {
+            loadShowtimeWindow(date);
+            return;
+        }
+        windowLoad.cancel(); // the date is in the current window, a pending load for another one is moot
+        showShowtimes(date);
+    }
+
+    private void showShowtimes(LocalDate date) {
+        List<Showtime> showtimes = showtimesByDay.getOrDefault(date, List.of());
 
         if (showtimes.isEmpty()) {
             showtimeListView.setItems(FXCollections.emptyObservableList());
@@ -288,7 +308,33 @@ public class ShowtimeSelectionView extends Application {
         }
     }
 
+    /**
+     * Fetches the showtimes of WINDOW_DAYS days starting at the given date in one background
+     * query, buckets them by day and then shows the given date
+     */
+    private void loadShowtimeWindow(LocalDate from) {
+        int movieId = selectedMovie.getID();
+        LocalDate to = from.plusDays(WINDOW_DAYS);
+        showStatusMessage("Loading showtimes...", true);
+        windowLoad.replace(() -> {
+            Map<LocalDate, List<Showtime>> byDay = new HashMap<>();
+            for (Showtime showtime : showtimeController.getShowtimesForMovie(movieId, from, to)) {
+                byDay.computeIfAbsent(showtime.getDateTime().toLocalDate(), day -> new ArrayList<>()).add(showtime);
+            }
+            return byDay;
+        }, byDay -> {
+            windowStart = from;
+            windowEnd = to;
+            showtimesByDay = byDay;
+            showShowtimes(from);
+        }, error -> {
+            BackgroundTasks.logFailure(error);
+            showStatusMessage("Failed to load showtimes, please try again", false);
+        });
+    }
+
     private void resetFilters() {
+        windowStart = null; // reload so newly added showtimes show up
         datePicker.setValue(LocalDate.now());
         if (selectedMovie != null) {
             filterShowtimes();
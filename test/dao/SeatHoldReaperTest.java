@@ -0,0 +1,118 @@
+package dao;
+
+import database.DatabaseConnection;
+import database.SchemaMigrator;
+import model.Movie;
+import model.Payment;
+import model.PaymentStatus;
+import model.SeatClaimResult;
+import model.Showtime;
+import model.User;
+import model.UserRole;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Runs the expired-hold reaper over a booking whose payment completed but was never confirmed,
+ * queued ahead of an ordinary abandoned booking. Needs the H2 driver on the classpath:
+ *
+ *   java -cp out:h2.jar dao.SeatHoldReaperTest
+ */
+public class SeatHoldReaperTest {
+
+    public static void main(String[] args) throws SQLException {
+        if (System.getProperty("moviebooking.db.mode") == null) {
+            System.setProperty("moviebooking.db.mode", "memory");
+        }
+        SchemaMigrator.migrate();
+
+        User user = new User(0, "Reaper Test", "reaper-test@example.com", "secret", UserRole.User);
+        new UserDAO().addUser(user);
+        int userId = new UserDAO().getUsersAfter(null, 1).get(0).getID();
+
+        Movie movie = new Movie(0, "Reaper Test", "Drama", 90, "");
+        new MovieDAO().addMovie(movie);
+        Showtime showtime = new Showtime(0, movie.getID(), LocalDateTime.now().plusDays(1), "Hall 1");
+        new ShowtimeDAO().addShowtimeWithSeats(showtime, 2, 2);
+        List<Integer> seatIds = seatIds(showtime.getId());
+
+        BookingDAO bookingDAO = new BookingDAO();
+        SeatClaimResult charged = bookingDAO.claimSeats(showtime.getId(), List.of(seatIds.get(0)), userId);
+        SeatClaimResult abandoned = bookingDAO.claimSeats(showtime.getId(), List.of(seatIds.get(1)), userId);
+        check(charged.isSuccess() && abandoned.isSuccess(), "seats claimed");
+
+        // The charge went through but confirmPaidBooking never ran
+        Payment payment = new Payment(charged.getBookingId(), 10f, PaymentStatus.COMPLETED);
+        payment.setPaymentMethod("Credit Card");
+        check(new PaymentDAO().addPayment(payment), "payment recorded");
+
+        // Expire both holds, the charged booking first so it is at the head of the queue
+        execute("UPDATE seat_holds SET expires_at = TIMESTAMPADD(MINUTE, -10, CURRENT_TIMESTAMP) WHERE booking_id = ?",
+                charged.getBookingId());
+        execute("UPDATE seat_holds SET expires_at = TIMESTAMPADD(MINUTE, -5, CURRENT_TIMESTAMP) WHERE booking_id = ?",
+                abandoned.getBookingId());
+
+        // A batch of one: the charged booking must not block the abandoned one behind it
+        new SeatHoldDAO().releaseExpiredHolds(1);
+        new SeatHoldDAO().releaseExpiredHolds(1);
+
+        check(bookingDAO.getBookingByID(charged.getBookingId()).isPaid(), "charged booking confirmed as paid");
+        check(isBooked(seatIds.get(0)), "charged booking keeps its seat");
+        check(bookingDAO.getBookingByID(abandoned.getBookingId()) == null, "abandoned booking released");
+        check(!isBooked(seatIds.get(1)), "abandoned seat freed");
+        check(count("SELECT COUNT(*) FROM seat_holds") == 0, "no holds left");
+        check(bookingDAO.confirmPaidBooking(charged.getBookingId()), "late confirmation still succeeds");
+
+        // A charge that can't be confirmed is flagged for refund; releasing then frees the
+        // seat but keeps the booking the refund belongs to
+        SeatClaimResult refunded = bookingDAO.claimSeats(showtime.getId(), List.of(seatIds.get(2)), userId);
+        Payment refundedPayment = new Payment(refunded.getBookingId(), 10f, PaymentStatus.COMPLETED);
+        refundedPayment.setPaymentMethod("Credit Card");
+        check(new PaymentDAO().addPayment(refundedPayment), "second payment recorded");
+        check(new PaymentDAO().flagCompletedPaymentsForRefund(refunded.getBookingId()) == 1, "payment flagged for refund");
+        check(bookingDAO.releaseBooking(refunded.getBookingId()), "refunded booking released");
+        check(!isBooked(seatIds.get(2)), "refunded seat freed");
+        check(bookingDAO.getBookingByID(refunded.getBookingId()) != null, "refunded booking kept");
+        check(new PaymentDAO().getPaymentsByBooking(refunded.getBookingId()).get(0).getStatus() == PaymentStatus.REFUND_PENDING,
+                "refund flag kept");
+
+        System.out.println("SeatHoldReaperTest passed");
+        DatabaseConnection.shutdown();
+    }
+
+    private static List<Integer> seatIds(int showtimeId) {
+        return new SeatDAO().getSeatsByShowtime(showtimeId).stream().map(seat -> seat.getId()).sorted().toList();
+    }
+
+    private static boolean isBooked(int seatId) {
+        return new SeatDAO().getSeatByID(seatId).isBooked();
+    }
+
+    private static void execute(String sql, int bookingId) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, bookingId);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static int count(String sql) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static void check(boolean condition, String what) {
+        if (!condition) {
+            throw new AssertionError("Failed: " + what);
+        }
+    }
+}
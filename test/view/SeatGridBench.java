@@ -0,0 +1,97 @@
+package view;
+
+import model.Seat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times building a SeatGrid and walking every cell with its label, as SeatView does when it
+ * renders a seat map, next to the per-cell search over the seat list it replaced. The time per
+ * seat should not grow from 500 to 5,000 seats for the grid, while it grows with the hall for the
+ * search. No database needed:
+ *
+ *   java -cp out view.SeatGridBench
+ */
+public class SeatGridBench {
+    private static final int ROWS = 20;
+    private static final int[] SEAT_COUNTS = {500, 1000, 5000};
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 50;
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        System.out.printf("%6s %12s %14s %12s %14s%n", "seats", "grid ms", "grid ns/seat", "search ms", "search ns/seat");
+        for (int seatCount : SEAT_COUNTS) {
+            int cols = seatCount / ROWS;
+            List<Seat> seats = seats(cols);
+
+            double gridMillis = time(() -> renderWithGrid(seats, cols));
+            double searchMillis = time(() -> renderWithSearch(seats, cols));
+            System.out.printf("%6d %12.3f %14.1f %12.3f %14.1f%n", seatCount,
+                    gridMillis, gridMillis * 1_000_000 / seatCount,
+                    searchMillis, searchMillis * 1_000_000 / seatCount);
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    private static List<Seat> seats(int cols) {
+        List<Seat> seats = new ArrayList<>(ROWS * cols);
+        int id = 1;
+        for (int row = 0; row < ROWS; row++) {
+            char rowLabel = (char) ('A' + row);
+            for (int col = 1; col <= cols; col++) {
+                seats.add(new Seat(id, 1, rowLabel + String.valueOf(col), id % 7 == 0));
+                id++;
+            }
+        }
+        return seats;
+    }
+
+    private static void renderWithGrid(List<Seat> seats, int cols) {
+        SeatGrid grid = SeatGrid.build(seats, ROWS, cols);
+        for (int row = 0; row < grid.getRows(); row++) {
+            for (int col = 0; col < grid.getCols(); col++) {
+                Seat seat = grid.getSeat(row, col);
+                if (seat != null) {
+                    sink += grid.getLabel(row, col).length() + (seat.isBooked() ? 1 : 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * The lookup SeatView used before SeatGrid: a search over the seat list per cell
+     */
+    private static void renderWithSearch(List<Seat> seats, int cols) {
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 1; col <= cols; col++) {
+                String label = String.format("%c%d", (char) ('A' + row), col);
+                Seat seat = seats.stream()
+                        .filter(s -> s.getSeatNumber().equalsIgnoreCase(label))
+                        .findFirst()
+                        .orElse(null);
+                if (seat != null) {
+                    sink += label.length() + (seat.isBooked() ? 1 : 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return average milliseconds per run after warm-up
+     */
+    private static double time(Runnable run) {
+        for (int i = 0; i < WARMUP; i++) {
+            run.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            run.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+}